@@ -1,18 +1,26 @@
 package api;
 
 import config.TestConfig;
-import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 /**
  * Base HTTP client for all API testing in the framework.
  *
- * This class wraps REST Assured to provide a centralized, reusable HTTP client
- * with three core capabilities:
+ * This class wraps a pluggable HttpTransport (REST Assured by default, or the
+ * JDK HttpClient) to provide a centralized, reusable HTTP client with three
+ * core capabilities:
  *
  * - JWT Authentication — Login or manually set tokens; automatically
  *   attached to all subsequent requests via the Authorization header.
@@ -27,8 +35,18 @@ import java.util.concurrent.*;
  * (e.g., UserApi) and expose named methods like getUsers(), createUser().
  * This keeps endpoint definitions separate from HTTP plumbing.
  *
- * Configuration: All requests use the base URL from TestConfig.API_BASE_URL,
- * send and accept JSON, and log full request/response details to the console.
+ * Configuration: Requests go to TestConfig.API_BASE_URL, or to the base URL
+ * passed to the constructor, and send and accept JSON. Clients of the same
+ * base URL share one transport (connection pool) and one async executor,
+ * handed out with reference counting by ClientRegistry.shared(). The
+ * transport is chosen by TestConfig.API_TRANSPORT; either way every method
+ * returns a REST Assured Response. With -DapiCache=true,
+ * GETs are served from a shared conditional-GET cache (ResponseCache).
+ * Transient failures (429/502/503/504, I/O errors) of idempotent requests are
+ * retried with backoff (RetryPolicy, -DapiRetries), and requests can be paced
+ * per host and endpoint with shared token buckets (RateLimits, -DapiRateLimit).
+ * Request/response details are kept in a per-thread failure log (ApiLog) and
+ * only printed when a test fails; -DapiLog=all restores full console logging.
  *
  * Example inheritance:
  *
@@ -36,38 +54,134 @@ import java.util.concurrent.*;
  *       public Response getUsers() { return get("/users"); }
  *   }
  */
-public class ApiClient {
+public class ApiClient implements AutoCloseable {
 
     /**
-     * The current JWT token. When set (non-null, non-empty), it is automatically
+     * The manually set JWT token. When set (non-null, non-empty), it is automatically
      * included as a Bearer token in the Authorization header of every request.
-     * Set via authenticate() or setJwtToken(). Clear with setJwtToken(null).
+     * Set via setJwtToken(); authenticate() binds tokenEntry instead.
+     * Clear with setJwtToken(null).
      */
     private String jwtToken;
 
     /**
-     * Fixed thread pool with 5 threads used for async HTTP calls.
-     * Each async method submits work to this pool via CompletableFuture.supplyAsync().
-     * Must be shut down via shutdown() in @AfterClass to prevent thread leaks.
+     * Headers added to every request — the Authorization header when a token is set.
+     * Replaced (never mutated) when the token changes, so transports can cheaply
+     * notice the change and rebuild any cached per-token state.
+     */
+    private volatile Map<String, String> authHeaders = Map.of();
+
+    /**
+     * The shared TokenCache entry bound by authenticate(), or null. When set,
+     * it supplies the token (refreshed in the background before it expires)
+     * instead of jwtToken/authHeaders.
+     */
+    private volatile TokenCache.Entry tokenEntry;
+
+    /** The API root every request path is appended to. */
+    private final String baseUrl;
+
+    /**
+     * This client's reference to the transport and executor shared by all
+     * clients of baseUrl. Released by shutdown(); the last release closes them.
+     */
+    private final ClientRegistry.Lease lease;
+
+    /**
+     * The transport that performs the actual HTTP exchange, selected by
+     * TestConfig.API_TRANSPORT and wrapped by ClientRegistry.newTransport().
+     * Shared with every client of the same base URL.
+     */
+    private final HttpTransport transport;
+
+    /**
+     * Executor used for async HTTP calls.
+     * Each async method submits work to it via CompletableFuture.supplyAsync().
+     *
+     * By default it is the shared executor of this client's base URL, created
+     * from TestConfig.API_EXECUTOR: a fixed pool of TestConfig.API_POOL_SIZE
+     * platform threads, or one virtual thread per request. Callers may also
+     * pass their own executor to the constructor.
+     */
+    private final ExecutorService executor;
+
+    /** Set by shutdown(); later calls are rejected even though the shared resources may live on. */
+    private volatile boolean closed;
+
+    /**
+     * Bounds the async calls this client has accepted but not finished
+     * (TestConfig.API_MAX_IN_FLIGHT) and tracks in-flight and queued counts.
+     */
+    private final InFlightLimiter limiter = new InFlightLimiter(TestConfig.API_MAX_IN_FLIGHT,
+            InFlightLimiter.Overflow.valueOf(TestConfig.API_OVERFLOW.toUpperCase()));
+
+    /** @return TestConfig.API_BASE_URL, or the shared StubServer's URL with -DapiStub=true */
+    static String defaultBaseUrl() {
+        return TestConfig.API_STUB ? StubServer.shared().baseUrl() : TestConfig.API_BASE_URL;
+    }
+
+    /**
+     * Creates a client for the default base URL: TestConfig.API_BASE_URL, or
+     * the shared StubServer with -DapiStub=true. Shut it down via
+     * shutdown() (or close()) in @AfterClass to release its share of the
+     * pooled threads and connections.
+     */
+    public ApiClient() { this(defaultBaseUrl()); }
+
+    /**
+     * Creates a client for another base URL, e.g. a second service or a local
+     * stub. Clients of the same base URL share one transport and executor.
      *
-     * Why 5 threads: Provides enough concurrency for parallel API calls in tests
-     * without overwhelming the target server or exhausting system resources.
+     * Example:
+     *   try (UserApi staging = new UserApi("https://staging.example.com/api")) {
+     *       staging.getUsers();
+     *   }
+     *
+     * @param baseUrl the API root every request path is appended to
      */
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    public ApiClient(String baseUrl) {
+        this.baseUrl = Objects.requireNonNull(baseUrl, "baseUrl");
+        this.lease = ClientRegistry.shared().acquire(baseUrl);
+        this.transport = lease.transport();
+        this.executor = lease.executor();
+    }
+
+    /**
+     * Creates a client that runs async calls on a caller-supplied executor.
+     * shutdown() does not shut the executor down; the caller owns its lifecycle.
+     * The transport is still the shared one for the default base URL.
+     *
+     * Example:
+     *   ExecutorService shared = Executors.newVirtualThreadPerTaskExecutor();
+     *   UserApi api = new UserApi(shared);
+     *
+     * @param executor the executor to run async requests on
+     */
+    public ApiClient(ExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.baseUrl = defaultBaseUrl();
+        this.lease = ClientRegistry.shared().acquire(baseUrl);
+        this.transport = lease.transport();
+    }
 
     // ═══════════════════════════════════════════════════════════════
     // JWT AUTHENTICATION
     // Methods for obtaining and managing JWT tokens.
-    // Once a token is set, req() automatically attaches it to every request.
+    // Once a token is set, it is automatically attached to every request.
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Authenticates against the API's login endpoint and stores the returned JWT.
+     * Authenticates against the API's login endpoint and uses the returned JWT.
      *
      * How it works:
-     * 1. Sends a POST to /auth/login with JSON body: {"username": "...", "password": "..."}
-     * 2. Extracts the "token" field from the JSON response
-     * 3. Stores it in jwtToken so all future requests include it
+     * 1. Looks the credentials up in the process-wide TokenCache
+     * 2. Only on a miss: sends a POST to /auth/login with JSON body
+     *    {"username": "...", "password": "..."} and caches the "token" field.
+     *    If another thread is already logging in with the same credentials,
+     *    waits for that request instead of sending a second one
+     * 3. Binds this client to the cache entry so all future requests include
+     *    the token — including tokens the cache refreshes in the background
+     *    before the JWT "exp" claim runs out
      *
      * Example:
      *   api.authenticate("admin", "password123");
@@ -76,16 +190,47 @@ public class ApiClient {
      *
      * @param username the login username
      * @param password the login password
-     * @return the JWT token string extracted from the login response
+     * @return the JWT token, or null if the login failed (authentication is then cleared)
      */
     public String authenticate(String username, String password) {
-        Response res = RestAssured.given()
-                .baseUri(TestConfig.API_BASE_URL)
-                .contentType(ContentType.JSON)
-                .body(Map.of("username", username, "password", password))
-                .post("/auth/login").then().extract().response();
-        this.jwtToken = res.jsonPath().getString("token");
-        return this.jwtToken;
+        return bind(TokenCache.shared().get(baseUrl, username, password));
+    }
+
+    /**
+     * Async variant of authenticate(): returns at once with a future for the token.
+     *
+     * Concurrent authentications with the same credentials — from any client
+     * or thread — share one in-flight login request, so 20 parallel test
+     * classes starting together send a single POST /auth/login.
+     *
+     * Example:
+     *   CompletableFuture<String> token = api.authenticateAsync("admin", "password123");
+     *   // ... other setup ...
+     *   token.join();     // this client is now authenticated
+     *
+     * @param username the login username
+     * @param password the login password
+     * @return a future for the JWT token; completes with null if the login failed
+     */
+    public CompletableFuture<String> authenticateAsync(String username, String password) {
+        return TokenCache.shared().getAsync(baseUrl, username, password)
+                .thenApply(this::bind);
+    }
+
+    /**
+     * Binds this client to a cache entry (or clears auth if the login failed).
+     *
+     * @return the bound token, or null
+     */
+    private String bind(TokenCache.Entry entry) {
+        if (entry == null) {
+            setJwtToken(null);
+            return null;
+        }
+        this.jwtToken = null;
+        this.authHeaders = Map.of();
+        this.tokenEntry = entry;
+        return entry.token();
     }
 
     /**
@@ -98,44 +243,115 @@ public class ApiClient {
      *
      * @param token the JWT token string, or null to clear authentication
      */
-    public void setJwtToken(String token) { this.jwtToken = token; }
+    public void setJwtToken(String token) {
+        this.tokenEntry = null;
+        this.jwtToken = token;
+        this.authHeaders = token == null || token.isEmpty()
+                ? Map.of()
+                : Map.of("Authorization", "Bearer " + token);
+    }
 
     /**
      * Returns the currently stored JWT token.
      *
      * @return the JWT token, or null if no token is set
      */
-    public String getJwtToken() { return this.jwtToken; }
+    public String getJwtToken() {
+        TokenCache.Entry entry = tokenEntry;
+        return entry != null ? entry.token() : this.jwtToken;
+    }
+
+    /**
+     * Returns the headers to add to every request: the cache entry's (always
+     * current) Authorization header after authenticate(), otherwise the one
+     * built by setJwtToken(). Never blocks.
+     */
+    private Map<String, String> authHeaders() {
+        TokenCache.Entry entry = tokenEntry;
+        return entry != null ? entry.headers() : authHeaders;
+    }
 
     // ═══════════════════════════════════════════════════════════════
-    // REQUEST BUILDER
-    // Private helper that constructs a fully configured REST Assured
-    // request specification. Every HTTP method calls this first.
+    // REQUEST DISPATCH
+    // Private helpers every HTTP method goes through: attach the auth
+    // header, hand the request to the transport, record the exchange
+    // in the failure log and its latency in ApiMetrics.
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Builds a pre-configured REST Assured RequestSpecification.
+     * Sends one request through the transport and records it in the given
+     * failure-log buffer and in ApiMetrics. Every sync HTTP method ends up here.
+     *
+     * @param request the request (without auth headers — they are added here)
+     * @param log     the buffer to record into
+     * @return the complete HTTP response
+     */
+    private Response send(ApiRequest request, ApiLog.Buffer log) {
+        if (closed) throw new IllegalStateException("ApiClient for " + baseUrl + " has been shut down");
+        ApiRequest r = request.withDefaultHeaders(authHeaders());
+        Instant at = Instant.now();
+        long start = System.nanoTime();
+        try {
+            Response res = transport.execute(r);
+            record(r, log, at, start, res, null);
+            return res;
+        } catch (Exception e) {   // REST Assured rethrows checked I/O errors undeclared; record those too
+            record(r, log, at, start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends one request asynchronously under the in-flight limiter, with the
+     * default deadline (TestConfig.API_ASYNC_DEADLINE_MS, 0 for none).
+     *
+     * @param request the request (without auth headers — they are added here)
+     * @return a future that completes with the response
+     */
+    private CompletableFuture<Response> sendAsync(ApiRequest request) {
+        return sendAsync(request, TestConfig.API_ASYNC_DEADLINE_MS > 0
+                ? Duration.ofMillis(TestConfig.API_ASYNC_DEADLINE_MS) : null);
+    }
+
+    /**
+     * Sends one request asynchronously under the in-flight limiter. Every async
+     * HTTP method ends up here.
      *
-     * Every request gets:
-     * - baseUri from TestConfig.API_BASE_URL
-     * - Content-Type: application/json — all requests send JSON
-     * - Accept: application/json — all requests expect JSON responses
-     * - Authorization: Bearer <token> — only if jwtToken is set
-     * - Full request logging — prints method, URL, headers, and body to console
+     * The returned future is the transport's own, so cancelling it — or the
+     * deadline passing, which fails it with a TimeoutException — aborts the
+     * HTTP exchange and releases the thread and the in-flight slot at once.
      *
-     * This is the single point of configuration. To change headers, auth,
-     * or logging for all requests, modify this method only.
+     * The exchange is recorded in the calling thread's failure-log buffer, so a
+     * failing test's dump includes the requests it fired in parallel.
      *
-     * @return a configured request specification ready to send
+     * @param request  the request (without auth headers — they are added here)
+     * @param deadline how long the call may take once started, or null for no limit
+     * @return a future that completes with the response
      */
-    private RequestSpecification req() {
-        RequestSpecification spec = RestAssured.given()
-                .baseUri(TestConfig.API_BASE_URL)
-                .contentType(ContentType.JSON)
-                .accept(ContentType.JSON);
-        if (jwtToken != null && !jwtToken.isEmpty())
-            spec.header("Authorization", "Bearer " + jwtToken);
-        return spec.log().all();
+    private CompletableFuture<Response> sendAsync(ApiRequest request, Duration deadline) {
+        if (closed) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("ApiClient for " + baseUrl + " has been shut down"));
+        }
+        ApiLog.Buffer log = ApiLog.buffer();
+        ApiRequest r = request.withDefaultHeaders(authHeaders());
+        return limiter.submitAsync(ex -> {
+            Instant at = Instant.now();
+            long start = System.nanoTime();
+            CompletableFuture<Response> call = transport.executeAsync(r, ex);
+            call.whenComplete((res, e) ->
+                    record(r, log, at, start, res, e instanceof CompletionException ? e.getCause() : e));
+            return deadline == null ? call : call.orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        }, executor);
+    }
+
+    /** Records a finished call in the failure log and in ApiMetrics (errors: exceptions and 5xx). */
+    private void record(ApiRequest r, ApiLog.Buffer log, Instant at, long startNanos,
+                        Response res, Throwable error) {
+        long elapsed = System.nanoTime() - startNanos;
+        ApiMetrics.shared().record(r.method(), r.path(), elapsed, error != null || res.statusCode() >= 500);
+        log.record(new ApiLog.Exchange(at, r.method(), baseUrl + r.path(), r.headers(), r.body(),
+                res, error, TimeUnit.NANOSECONDS.toMillis(elapsed)));
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -147,7 +363,7 @@ public class ApiClient {
     // Use these for standard sequential test flows where each step
     // depends on the previous one completing.
     //
-    // Flow: req() → send HTTP request → wait → log response → return Response
+    // Flow: transport sends HTTP request → wait → record in log → return Response
     // ═══════════════════════════════════════════════════════════════
 
     /**
@@ -158,7 +374,7 @@ public class ApiClient {
      * @param ep the endpoint path, appended to the base URL (e.g., "/users", "/users/1")
      * @return the complete HTTP response including status code, headers, and body
      */
-    public Response get(String ep) { return req().get(ep).then().log().all().extract().response(); }
+    public Response get(String ep) { return send(ApiRequest.get(ep), ApiLog.buffer()); }
 
     /**
      * Sends a synchronous (blocking) POST request with a JSON body.
@@ -167,10 +383,11 @@ public class ApiClient {
      * sends POST to https://api.example.com/users with body {"name":"John"}
      *
      * @param ep   the endpoint path
-     * @param body the request body — can be a Map, POJO, or String (auto-serialized to JSON)
+     * @param body the request body — can be a Map, POJO, or String (auto-serialized to JSON), or
+     *             pre-serialized JSON as byte[]/ByteBuffer (sent as-is, e.g. JsonTemplate.render(...))
      * @return the complete HTTP response
      */
-    public Response post(String ep, Object body) { return req().body(body).post(ep).then().log().all().extract().response(); }
+    public Response post(String ep, Object body) { return send(ApiRequest.post(ep, body), ApiLog.buffer()); }
 
     /**
      * Sends a synchronous (blocking) PUT request with a JSON body.
@@ -180,7 +397,7 @@ public class ApiClient {
      * @param body the full updated resource
      * @return the complete HTTP response
      */
-    public Response put(String ep, Object body) { return req().body(body).put(ep).then().log().all().extract().response(); }
+    public Response put(String ep, Object body) { return send(ApiRequest.put(ep, body), ApiLog.buffer()); }
 
     /**
      * Sends a synchronous (blocking) PATCH request with a JSON body.
@@ -190,7 +407,7 @@ public class ApiClient {
      * @param body the fields to update
      * @return the complete HTTP response
      */
-    public Response patch(String ep, Object body) { return req().body(body).patch(ep).then().log().all().extract().response(); }
+    public Response patch(String ep, Object body) { return send(ApiRequest.patch(ep, body), ApiLog.buffer()); }
 
     /**
      * Sends a synchronous (blocking) DELETE request.
@@ -198,7 +415,7 @@ public class ApiClient {
      * @param ep the endpoint path (e.g., "/users/1")
      * @return the complete HTTP response
      */
-    public Response delete(String ep) { return req().delete(ep).then().log().all().extract().response(); }
+    public Response delete(String ep) { return send(ApiRequest.delete(ep), ApiLog.buffer()); }
 
     // ═══════════════════════════════════════════════════════════════
     // ASYNCHRONOUS (ASYNC) HTTP METHODS
@@ -206,6 +423,15 @@ public class ApiClient {
     // immediately and execute the HTTP call on a background thread
     // from the executor pool.
     //
+    // Every async call first takes a slot from the in-flight limiter
+    // (TestConfig.API_MAX_IN_FLIGHT). When all slots are taken the caller
+    // blocks, or gets a rejected future (TestConfig.API_OVERFLOW).
+    //
+    // The futures are really cancellable: cancel(true), or a deadline
+    // (per call, or TestConfig.API_ASYNC_DEADLINE_MS by default) passing,
+    // aborts the HTTP exchange and frees its thread immediately. A
+    // deadline fails the future with java.util.concurrent.TimeoutException.
+    //
     // Use these when you need to fire multiple requests in parallel
     // (e.g., fetching a user and their posts simultaneously) or when
     // you want to test concurrent API behavior.
@@ -226,7 +452,19 @@ public class ApiClient {
      * @param ep the endpoint path
      * @return a CompletableFuture that completes with the response when the call finishes
      */
-    public CompletableFuture<Response> getAsync(String ep) { return CompletableFuture.supplyAsync(() -> get(ep), executor); }
+    public CompletableFuture<Response> getAsync(String ep) { return sendAsync(ApiRequest.get(ep)); }
+
+    /**
+     * Sends a GET request asynchronously that is aborted if it takes longer than the deadline.
+     *
+     * Example:
+     *   getAsync("/slow", Duration.ofSeconds(2)).join();  // CompletionException(TimeoutException) after 2 s
+     *
+     * @param ep       the endpoint path
+     * @param deadline the longest the call may take
+     * @return a CompletableFuture that completes with the response, or fails with TimeoutException
+     */
+    public CompletableFuture<Response> getAsync(String ep, Duration deadline) { return sendAsync(ApiRequest.get(ep), deadline); }
 
     /**
      * Sends a POST request asynchronously on a background thread.
@@ -235,7 +473,19 @@ public class ApiClient {
      * @param body the request body
      * @return a CompletableFuture that completes with the response
      */
-    public CompletableFuture<Response> postAsync(String ep, Object body) { return CompletableFuture.supplyAsync(() -> post(ep, body), executor); }
+    public CompletableFuture<Response> postAsync(String ep, Object body) { return sendAsync(ApiRequest.post(ep, body)); }
+
+    /**
+     * Sends a POST request asynchronously that is aborted if it takes longer than the deadline.
+     *
+     * @param ep       the endpoint path
+     * @param body     the request body
+     * @param deadline the longest the call may take
+     * @return a CompletableFuture that completes with the response, or fails with TimeoutException
+     */
+    public CompletableFuture<Response> postAsync(String ep, Object body, Duration deadline) {
+        return sendAsync(ApiRequest.post(ep, body), deadline);
+    }
 
     /**
      * Sends a DELETE request asynchronously on a background thread.
@@ -243,12 +493,313 @@ public class ApiClient {
      * @param ep the endpoint path
      * @return a CompletableFuture that completes with the response
      */
-    public CompletableFuture<Response> deleteAsync(String ep) { return CompletableFuture.supplyAsync(() -> delete(ep), executor); }
+    public CompletableFuture<Response> deleteAsync(String ep) { return sendAsync(ApiRequest.delete(ep)); }
+
+    /**
+     * Sends a DELETE request asynchronously that is aborted if it takes longer than the deadline.
+     *
+     * @param ep       the endpoint path
+     * @param deadline the longest the call may take
+     * @return a CompletableFuture that completes with the response, or fails with TimeoutException
+     */
+    public CompletableFuture<Response> deleteAsync(String ep, Duration deadline) {
+        return sendAsync(ApiRequest.delete(ep), deadline);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // STREAMING HTTP METHODS
+    // These methods BLOCK until the response headers arrive, then hand
+    // back the body unread. Elements are parsed one at a time as the
+    // caller consumes them, so memory use stays constant no matter how
+    // large the list endpoint's response is.
+    //
+    // Streamed exchanges are not recorded in the failure log (the body is
+    // never held in memory). Always close the stream — use
+    // try-with-resources — to release the connection.
+    //
+    // Example:
+    //   try (Stream<JsonObject> users = getStream("/users", JsonObject.class)) {
+    //       Assert.assertTrue(users.allMatch(u -> u.has("email")));
+    //   }
+    //
+    // For collections too large for one response, getPages() walks a
+    // paginated endpoint page by page with the next pages prefetched.
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Sends a GET request and returns the raw, unread response body.
+     *
+     * @param ep the endpoint path
+     * @return the response body; the caller must close it
+     * @throws IllegalStateException if the server answers with a 4xx/5xx status
+     */
+    public InputStream getBody(String ep) { return transport.stream(ApiRequest.get(ep).withDefaultHeaders(authHeaders())); }
+
+    /**
+     * Sends a GET request to an endpoint returning a JSON array and streams its
+     * elements, each bound to the given type with Gson.
+     *
+     * @param ep   the endpoint path (e.g., "/users")
+     * @param type the element type — a record/POJO, or JsonObject for untyped access
+     * @return a lazily parsed stream; closing it releases the connection
+     * @throws IllegalStateException if the server answers with a 4xx/5xx status
+     */
+    public <T> Stream<T> getStream(String ep, Class<T> type) { return JsonArrayStream.of(getBody(ep), type); }
+
+    /**
+     * Sends a GET request to an endpoint returning a JSON array and counts its
+     * elements without binding any of them.
+     *
+     * @param ep the endpoint path
+     * @return the number of elements in the array
+     * @throws IllegalStateException if the server answers with a 4xx/5xx status
+     */
+    public long countElements(String ep) { return JsonArrayStream.count(getBody(ep)); }
+
+    /**
+     * Iterates a _page/_limit paginated endpoint, fetching up to prefetch
+     * pages ahead of the one being consumed through the async path (so the
+     * in-flight limit and deadlines apply to every page).
+     *
+     * Example:
+     *   try (PageIterator<User> pages = getPages("/users", User.class, 100, 2)) {
+     *       pages.forEachRemaining(page -> Assert.assertFalse(page.isEmpty()));
+     *   }
+     *
+     * @param ep       the list endpoint (e.g., "/users")
+     * @param type     the element type
+     * @param pageSize elements per page (_limit)
+     * @param prefetch pages to request ahead; 0 fetches one page at a time
+     * @return an iterator of pages; close it when stopping early
+     */
+    public <T> PageIterator<T> getPages(String ep, Class<T> type, int pageSize, int prefetch) {
+        return new PageIterator<>(this::getAsync, ep, type, pageSize, prefetch);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // TYPED HTTP METHODS
+    // Sync GETs whose body is bound to a record/POJO in one streaming
+    // pass (JsonBinding), instead of re-parsing it with jsonPath() for
+    // every field. The raw Response stays reachable for status and
+    // header assertions; the body is only bound when first asked for.
+    //
+    // Example:
+    //   TypedResponse<List<User>> users = getList("/users", User.class);
+    //   Assert.assertEquals(users.statusCode(), 200);
+    //   Assert.assertTrue(users.body().stream().allMatch(u -> u.email() != null));
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Sends a GET request and binds the JSON object it returns.
+     *
+     * @param ep   the endpoint path (e.g., "/users/1")
+     * @param type the body type
+     * @return the response with its body bound on demand
+     */
+    public <T> TypedResponse<T> get(String ep, Class<T> type) {
+        return new TypedResponse<>(get(ep), body -> JsonBinding.one(body, type));
+    }
+
+    /**
+     * Sends a GET request and binds the JSON array it returns.
+     *
+     * @param ep   the endpoint path (e.g., "/users")
+     * @param type the element type
+     * @return the response with its elements bound on demand
+     */
+    public <T> TypedResponse<List<T>> getList(String ep, Class<T> type) {
+        return new TypedResponse<>(get(ep), body -> JsonBinding.list(body, type));
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // REQUEST DESCRIPTORS AND BATCHES
+    // Send ApiRequest descriptors directly — useful when the method,
+    // path or headers are data (e.g. a list of users to seed) rather
+    // than code.
+    //
+    // Example:
+    //   List<Response> created = batch(List.of(
+    //           ApiRequest.post("/users", alice),
+    //           ApiRequest.post("/users", bob)));
+    //   created.get(0).statusCode();   // response for alice, in input order
+    // ═══════════════════════════════════════════════════════════════
+
+    /** How batch() reacts when a request in the batch fails with an exception. */
+    public enum BatchMode {
+        /** Stop sending, cancel outstanding requests and throw on the first failure. */
+        FAIL_FAST,
+        /** Send everything, wait for all, then throw one exception listing every failure. */
+        COLLECT_ALL
+    }
+
+    /**
+     * Sends a request descriptor synchronously (blocking).
+     *
+     * @param request the request to send
+     * @return the complete HTTP response
+     */
+    public Response execute(ApiRequest request) { return send(request, ApiLog.buffer()); }
+
+    /**
+     * Sends a request descriptor asynchronously, under the in-flight limit.
+     *
+     * @param request the request to send
+     * @return a CompletableFuture that completes with the response
+     */
+    public CompletableFuture<Response> executeAsync(ApiRequest request) { return sendAsync(request); }
+
+    /**
+     * Sends a request descriptor asynchronously, aborting it if it takes longer than the deadline.
+     *
+     * @param request  the request to send
+     * @param deadline the longest the call may take
+     * @return a CompletableFuture that completes with the response, or fails with TimeoutException
+     */
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Duration deadline) {
+        return sendAsync(request, deadline);
+    }
+
+    /**
+     * Sends all requests concurrently in FAIL_FAST mode and returns the
+     * responses in input order.
+     *
+     * @param requests the requests to send
+     * @return one response per request, in the same order
+     * @throws BatchException on the first request that fails with an exception
+     */
+    public List<Response> batch(List<ApiRequest> requests) { return batch(requests, BatchMode.FAIL_FAST); }
+
+    /**
+     * Sends all requests concurrently and returns the responses in input order.
+     *
+     * Requests are sent through the async path, so they respect the client's
+     * executor and in-flight limit. When a limit is set (TestConfig.API_MAX_IN_FLIGHT),
+     * at most that many batch requests are outstanding at once and the rest are
+     * sent as earlier ones finish — so a large batch is never rejected for
+     * overflowing the limit on its own.
+     *
+     * Only exceptions count as failures; 4xx/5xx responses are returned as-is.
+     *
+     * @param requests the requests to send
+     * @param mode     FAIL_FAST or COLLECT_ALL
+     * @return one response per request, in the same order
+     * @throws BatchException if any request failed; holds the partial responses and all errors
+     */
+    public List<Response> batch(List<ApiRequest> requests, BatchMode mode) {
+        int limit = limiter.getLimit();
+        Semaphore window = limit > 0 ? new Semaphore(limit) : null;
+        List<CompletableFuture<Response>> futures = new ArrayList<>(requests.size());
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+
+        for (ApiRequest request : requests) {
+            if (mode == BatchMode.FAIL_FAST && failed.isDone()) break;
+            if (window != null) window.acquireUninterruptibly();
+            CompletableFuture<Response> future = sendAsync(request);
+            future.whenComplete((res, e) -> {
+                if (window != null) window.release();
+                if (e != null) failed.complete(null);
+            });
+            futures.add(future);
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        if (mode == BatchMode.FAIL_FAST) {
+            CompletableFuture.anyOf(all, failed).exceptionally(e -> null).join();
+            if (failed.isDone()) futures.forEach(f -> f.cancel(true));
+        } else {
+            all.exceptionally(e -> null).join();
+        }
+
+        List<Response> responses = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Map<Integer, Throwable> errors = new TreeMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Response> future = futures.get(i);
+            if (future.isCancelled()) continue;
+            try {
+                responses.set(i, future.join());
+            } catch (CompletionException e) {
+                errors.put(i, e.getCause());
+            }
+        }
+        if (!errors.isEmpty()) throw new BatchException(requests, responses, errors);
+        return responses;
+    }
 
     // ═══════════════════════════════════════════════════════════════
     // UTILITY METHODS
     // ═══════════════════════════════════════════════════════════════
 
+    /**
+     * Returns the number of async requests currently executing.
+     *
+     * @return in-flight request count
+     */
+    public int getInFlightCount() { return limiter.getInFlightCount(); }
+
+    /**
+     * Returns the most async requests allowed in flight at once
+     * (TestConfig.API_MAX_IN_FLIGHT).
+     *
+     * @return the in-flight limit, or 0 if unlimited
+     */
+    public int getInFlightLimit() { return limiter.getLimit(); }
+
+    /**
+     * Returns the number of async requests accepted but still waiting for an
+     * executor thread. Stays near zero in virtual-thread mode.
+     *
+     * @return queued request count
+     */
+    public int getQueueDepth() { return limiter.getQueueDepth(); }
+
+    /**
+     * Returns a snapshot of the transport's connection pool — leased, available,
+     * pending and max connections. Empty for transports whose pool is not
+     * observable (the jdk transport).
+     *
+     * Example:
+     *   api.getPoolStats().ifPresent(s -> Assert.assertEquals(s.pending(), 0));
+     *
+     * @return pool statistics, if available
+     */
+    public Optional<ConnectionPoolStats> getPoolStats() { return transport.poolStats(); }
+
+    /**
+     * Returns the shared response cache's counters — hits, misses, 304
+     * revalidations, evictions and bytes saved. Empty unless -DapiCache=true.
+     *
+     * Example:
+     *   api.getCacheStats().ifPresent(s -> System.out.println(s.hits() + " GETs served from cache"));
+     *
+     * @return cache statistics, if the cache is enabled
+     */
+    public Optional<ResponseCache.Stats> getCacheStats() {
+        return TestConfig.API_CACHE ? Optional.of(ResponseCache.shared().stats()) : Optional.empty();
+    }
+
+    /**
+     * Returns latency percentiles, throughput and error counts per endpoint
+     * template for every call made so far by any client in this JVM.
+     *
+     * Example:
+     *   api.getMetrics().forEach(m -> System.out.println(m.endpoint() + " p99=" + m.p99Ms() + " ms"));
+     *
+     * @return one snapshot per method and endpoint template
+     */
+    public List<ApiMetrics.EndpointSnapshot> getMetrics() { return ApiMetrics.shared().snapshot(); }
+
+    /**
+     * Returns request and response body bytes as sent/received on the wire
+     * and before encoding/after decoding, for every call in this JVM. The
+     * difference is what -DapiCompression=true saved.
+     *
+     * Example:
+     *   System.out.printf("%.0f%% of response bytes saved%n", api.getTransferStats().responseSavedPercent());
+     *
+     * @return the current byte totals
+     */
+    public TransferStats.Snapshot getTransferStats() { return TransferStats.shared().snapshot(); }
+
     /**
      * Blocks the current thread until ALL given futures have completed.
      * Use this after firing multiple async requests to wait for all results
@@ -265,10 +816,20 @@ public class ApiClient {
     public final void awaitAll(CompletableFuture<Response>... futures) { CompletableFuture.allOf(futures).join(); }
 
     /**
-     * Shuts down the async thread pool. Must be called in @AfterClass
-     * to release threads and prevent resource leaks.
+     * Releases this client's share of the pooled executor and transport. The
+     * last client of a base URL to shut down closes them. Call it in
+     * @AfterClass, or use the client in try-with-resources.
      *
-     * After calling this, async methods will throw RejectedExecutionException.
+     * A caller-supplied executor is left running.
+     * After calling this, async methods return futures failed with
+     * RejectedExecutionException and sync methods throw IllegalStateException.
      */
-    public void shutdown() { executor.shutdown(); }
+    public void shutdown() {
+        closed = true;
+        lease.close();
+    }
+
+    /** Same as shutdown(), for try-with-resources. */
+    @Override
+    public void close() { shutdown(); }
 }
\ No newline at end of file
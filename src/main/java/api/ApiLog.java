@@ -0,0 +1,143 @@
+package api;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import config.TestConfig;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+/**
+ * Failure-only request/response log for ApiClient.
+ *
+ * Writing every header and body of every call to stdout serializes parallel
+ * test threads on console I/O. Instead, in the default "failure" mode each
+ * thread keeps its last TestConfig.API_LOG_BUFFER_SIZE exchanges in a bounded
+ * in-memory ring buffer. Nothing is formatted or printed until dump() is called —
+ * typically by a TestNG listener when a test fails.
+ *
+ * Async calls are recorded into the buffer of the thread that submitted them,
+ * so a failing test's dump also shows the requests it fired in parallel.
+ *
+ * Set -DapiLog=all to print every exchange to the console as it completes instead.
+ *
+ * Example (in a TestNG listener):
+ *   public void onTestStart(ITestResult r)   { ApiLog.clear(); }
+ *   public void onTestFailure(ITestResult r) { ApiLog.dump(System.out); }
+ */
+public final class ApiLog {
+
+    /** Whether every exchange is printed to the console as it completes, instead of buffered. */
+    public static final boolean LOG_ALL = "all".equalsIgnoreCase(TestConfig.API_LOG);
+
+    /** Per-thread ring buffer of recent exchanges. */
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private ApiLog() { }
+
+    /**
+     * Returns the calling thread's buffer. ApiClient captures it before handing
+     * an async call to the executor, so the exchange lands in the submitter's log.
+     *
+     * @return the current thread's buffer
+     */
+    public static Buffer buffer() { return BUFFER.get(); }
+
+    /** Discards the calling thread's buffered exchanges (e.g. at the start of each test). */
+    public static void clear() { BUFFER.get().clear(); }
+
+    /**
+     * Formats and prints the calling thread's buffered exchanges, oldest first,
+     * then clears the buffer. Does nothing if the buffer is empty.
+     *
+     * @param out where to print (usually System.out)
+     */
+    public static void dump(PrintStream out) {
+        List<Exchange> exchanges = BUFFER.get().drain();
+        if (exchanges.isEmpty()) return;
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== Last ").append(exchanges.size()).append(" API exchange(s) on ")
+          .append(Thread.currentThread().getName()).append(" =====\n");
+        for (Exchange e : exchanges) e.format(sb);
+        out.print(sb);
+    }
+
+    /**
+     * A recorded request/response pair. Holds references only — the response
+     * body is decoded and formatted lazily, when (and if) the buffer is dumped.
+     *
+     * @param at          when the request was sent
+     * @param method      HTTP method
+     * @param uri         full request URI
+     * @param headers     request headers (Authorization masked)
+     * @param requestBody request body as passed by the caller, or null
+     * @param response    the response, or null if the call threw
+     * @param error       the exception thrown by the call, or null
+     * @param tookMillis  wall time of the call
+     */
+    public record Exchange(Instant at, String method, String uri, Map<String, String> headers,
+                           Object requestBody, Response response, Throwable error, long tookMillis) {
+
+        void format(StringBuilder sb) {
+            sb.append(at).append("  ").append(method).append(' ').append(uri)
+              .append("  (").append(tookMillis).append(" ms)\n");
+            headers.forEach((k, v) -> sb.append("  > ").append(k).append(": ")
+                    .append("Authorization".equalsIgnoreCase(k) ? "Bearer ***" : v).append('\n'));
+            if (requestBody != null) sb.append("  > ").append(requestBody instanceof byte[] || requestBody instanceof ByteBuffer
+                    ? new String(Compression.toBytes(requestBody), StandardCharsets.UTF_8) : requestBody).append('\n');
+            if (error != null) {
+                sb.append("  ! ").append(error).append('\n');
+                return;
+            }
+            sb.append("  < ").append(response.statusLine()).append('\n');
+            for (Header h : response.headers()) sb.append("  < ").append(h.getName()).append(": ").append(h.getValue()).append('\n');
+            String body = response.asString();
+            if (body != null && !body.isEmpty()) sb.append("  < ").append(body).append('\n');
+        }
+    }
+
+    /**
+     * Bounded ring buffer of exchanges. Synchronized because async calls from
+     * executor threads write into the submitting thread's buffer.
+     */
+    public static final class Buffer {
+
+        private final ArrayDeque<Exchange> ring = new ArrayDeque<>();
+
+        /**
+         * Adds an exchange, evicting the oldest once TestConfig.API_LOG_BUFFER_SIZE is reached.
+         * With -DapiLog=all the exchange is printed right away instead.
+         *
+         * @param exchange the exchange to keep
+         */
+        public void record(Exchange exchange) {
+            if (LOG_ALL) {
+                StringBuilder sb = new StringBuilder();
+                exchange.format(sb);
+                System.out.print(sb);
+                return;
+            }
+            keep(exchange);
+        }
+
+        private synchronized void keep(Exchange exchange) {
+            if (TestConfig.API_LOG_BUFFER_SIZE <= 0) return;
+            if (ring.size() == TestConfig.API_LOG_BUFFER_SIZE) ring.pollFirst();
+            ring.addLast(exchange);
+        }
+
+        synchronized List<Exchange> drain() {
+            List<Exchange> out = new ArrayList<>(ring);
+            ring.clear();
+            return out;
+        }
+
+        synchronized void clear() { ring.clear(); }
+    }
+}
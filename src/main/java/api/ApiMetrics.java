@@ -0,0 +1,192 @@
+package api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import config.TestConfig;
+
+/**
+ * Process-wide latency and throughput metrics for every ApiClient call.
+ *
+ * Each call is recorded under its method and endpoint template — path
+ * parameters are normalized, so GET /users/7 and GET /users/8 both count as
+ * GET /users/{id}. Per endpoint it keeps a LatencyHistogram (µs), a call count
+ * and an error count (exceptions and 5xx responses). Recording is lock-free.
+ *
+ * When the JVM exits, a JSON snapshot is written once to
+ * TestConfig.API_METRICS_FILE, so every run leaves p50/p90/p99/max per
+ * endpoint behind for comparison. The export runs in a shutdown hook
+ * registered with the shared instance; a failure to write it is reported on
+ * stderr and never fails the run.
+ *
+ * Example:
+ *   for (ApiMetrics.EndpointSnapshot e : ApiMetrics.shared().snapshot()) {
+ *       System.out.println(e.method() + " " + e.endpoint() + " p99=" + e.p99Ms() + " ms");
+ *   }
+ */
+public final class ApiMetrics {
+
+    private static final ApiMetrics SHARED = new ApiMetrics();
+
+    static {
+        if (!TestConfig.API_METRICS_FILE.isBlank()) {
+            Path file = Path.of(TestConfig.API_METRICS_FILE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    SHARED.writeJson(file);
+                } catch (RuntimeException e) {
+                    System.err.println("api-metrics: " + e.getMessage());   // too late to fail anything
+                }
+            }, "api-metrics-export"));
+        }
+    }
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private record Key(String method, String endpoint) { }
+
+    /** Live counters for one endpoint template. */
+    private static final class Endpoint {
+        final LatencyHistogram latencyMicros = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final long firstNanos = System.nanoTime();
+    }
+
+    /**
+     * Metrics for one endpoint at one point in time. Latencies are in milliseconds.
+     *
+     * @param method           HTTP method
+     * @param endpoint         path template, e.g. /users/{id}
+     * @param count            calls recorded
+     * @param errors           calls that threw or returned 5xx
+     * @param throughputPerSec calls per second since the endpoint's first call
+     */
+    public record EndpointSnapshot(String method, String endpoint, long count, long errors, double throughputPerSec,
+                                   double p50Ms, double p90Ms, double p99Ms, double maxMs, double meanMs) { }
+
+    /** Shape of the exported JSON file. */
+    private record Report(String generatedAt, TransferStats.Snapshot transfer, List<EndpointSnapshot> endpoints) { }
+
+    private final Map<Key, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    ApiMetrics() { }
+
+    /** @return the JVM-wide metrics every ApiClient records into */
+    public static ApiMetrics shared() { return SHARED; }
+
+    /**
+     * Records one call.
+     *
+     * @param method        HTTP method
+     * @param path          request path as sent (normalized here)
+     * @param elapsedNanos  wall time of the call
+     * @param error         whether the call threw or returned a 5xx
+     */
+    public void record(String method, String path, long elapsedNanos, boolean error) {
+        Key key = new Key(method, template(path));
+        Endpoint e = endpoints.get(key);
+        if (e == null) e = endpoints.computeIfAbsent(key, k -> new Endpoint());
+        e.latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (error) e.errors.increment();
+    }
+
+    /** @return one snapshot per endpoint, sorted by endpoint then method */
+    public List<EndpointSnapshot> snapshot() {
+        long now = System.nanoTime();
+        List<EndpointSnapshot> out = new ArrayList<>();
+        endpoints.forEach((key, e) -> {
+            LatencyHistogram.Snapshot h = e.latencyMicros.snapshot();
+            double seconds = Math.max(1e-9, (now - e.firstNanos) / 1e9);
+            out.add(new EndpointSnapshot(key.method(), key.endpoint(), h.count(), e.errors.sum(),
+                    round(h.count() / seconds), millis(h.percentile(50)), millis(h.percentile(90)),
+                    millis(h.percentile(99)), millis(h.max()), round(h.mean() / 1000.0)));
+        });
+        out.sort(Comparator.comparing(EndpointSnapshot::endpoint).thenComparing(EndpointSnapshot::method));
+        return out;
+    }
+
+    /**
+     * Writes snapshot(), with the TransferStats byte totals, as pretty-printed
+     * JSON, creating parent directories.
+     *
+     * @param file where to write; replaced if it exists
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public synchronized void writeJson(Path file) {
+        try {
+            if (file.toAbsolutePath().getParent() != null) Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(new Report(Instant.now().toString(), TransferStats.shared().snapshot(), snapshot()), out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write API metrics to " + file, e);
+        }
+    }
+
+    /** Drops every recorded metric. */
+    public void reset() { endpoints.clear(); }
+
+    /**
+     * Normalizes a request path to its endpoint template: the query string is
+     * dropped and numeric or UUID segments become {id}.
+     *
+     * "/users/7/posts?_limit=5" → "/users/{id}/posts"
+     *
+     * @param path the request path
+     * @return the template (the same String if nothing changed)
+     */
+    static String template(String path) {
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        StringBuilder sb = null;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            if (isId(path, start, end)) {
+                if (sb == null) sb = new StringBuilder(path.length()).append(path, 0, start);
+                sb.append("{id}");
+            } else if (sb != null) {
+                sb.append(path, start, end);
+            }
+            if (end < path.length() && sb != null) sb.append('/');
+            start = end + 1;
+        }
+        return sb == null ? path : sb.toString();
+    }
+
+    /** A path segment is an id if it is all digits or a UUID. */
+    private static boolean isId(String path, int start, int end) {
+        int len = end - start;
+        if (len == 0) return false;
+        boolean digits = true;
+        for (int i = start; i < end && digits; i++) digits = Character.isDigit(path.charAt(i));
+        if (digits) return true;
+        if (len != 36) return false;
+        for (int i = 0; i < len; i++) {
+            char c = path.charAt(start + i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static double millis(long micros) { return round(micros / 1000.0); }
+
+    private static double round(double value) { return Math.round(value * 1000.0) / 1000.0; }
+}
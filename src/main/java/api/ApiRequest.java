@@ -0,0 +1,90 @@
+package api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Transport-neutral description of one HTTP request: method, endpoint path,
+ * optional body and extra headers.
+ *
+ * ApiClient builds these for every call and hands them to its HttpTransport,
+ * so the same request can be sent through REST Assured or java.net.http
+ * without any change to service objects like UserApi.
+ *
+ * Example:
+ *   ApiRequest r = ApiRequest.post("/users", Map.of("name", "John"))
+ *           .withHeader("X-Trace-Id", "abc123");
+ *
+ * @param method  the HTTP method in upper case (GET, POST, PUT, PATCH, DELETE)
+ * @param path    the endpoint path, appended to the base URL (e.g., "/users/1")
+ * @param body    the request body — Map, POJO, String, or pre-serialized JSON as byte[]/ByteBuffer
+ *                (e.g. from JsonTemplate) — or null for none
+ * @param headers extra request headers (never null; JSON content type/accept are added by the transport)
+ */
+public record ApiRequest(String method, String path, Object body, Map<String, String> headers) {
+
+    public ApiRequest {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(path, "path");
+        headers = headers == null ? Map.of() : headers;
+    }
+
+    /** @return a GET request for the path */
+    public static ApiRequest get(String path) { return new ApiRequest("GET", path, null, Map.of()); }
+
+    /** @return a POST request for the path with the given body */
+    public static ApiRequest post(String path, Object body) { return new ApiRequest("POST", path, body, Map.of()); }
+
+    /** @return a PUT request for the path with the given body */
+    public static ApiRequest put(String path, Object body) { return new ApiRequest("PUT", path, body, Map.of()); }
+
+    /** @return a PATCH request for the path with the given body */
+    public static ApiRequest patch(String path, Object body) { return new ApiRequest("PATCH", path, body, Map.of()); }
+
+    /** @return a DELETE request for the path */
+    public static ApiRequest delete(String path) { return new ApiRequest("DELETE", path, null, Map.of()); }
+
+    /**
+     * Returns a copy of this request with an Idempotency-Key header. The server
+     * is expected to apply a repeated request with the same key only once, which
+     * makes a POST or PATCH safe for RetryingTransport to retry.
+     *
+     * Example:
+     *   api.execute(ApiRequest.post("/orders", order).withIdempotencyKey(UUID.randomUUID().toString()));
+     *
+     * @param key a value unique to this logical operation
+     * @return a new request; this one is unchanged
+     */
+    public ApiRequest withIdempotencyKey(String key) { return withHeader(RetryPolicy.IDEMPOTENCY_KEY, key); }
+
+    /**
+     * Returns a copy of this request with one more header.
+     *
+     * @param name  the header name
+     * @param value the header value
+     * @return a new request; this one is unchanged
+     */
+    public ApiRequest withHeader(String name, String value) {
+        Map<String, String> merged = new LinkedHashMap<>(headers);
+        merged.put(name, value);
+        return new ApiRequest(method, path, body, Collections.unmodifiableMap(merged));
+    }
+
+    /**
+     * Returns a copy of this request with the given headers added. Headers
+     * already on the request win. When this request has no headers of its own
+     * the given map is reused as-is, so the common case costs no map copy.
+     *
+     * @param defaults headers to add, e.g. the client's Authorization header
+     * @return a request carrying both sets of headers
+     */
+    public ApiRequest withDefaultHeaders(Map<String, String> defaults) {
+        if (defaults.isEmpty()) return this;
+        if (headers.isEmpty()) return new ApiRequest(method, path, body, defaults);
+        Map<String, String> merged = new LinkedHashMap<>(defaults);
+        merged.putAll(headers);
+        return new ApiRequest(method, path, body, Collections.unmodifiableMap(merged));
+    }
+}
@@ -0,0 +1,55 @@
+package api;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.restassured.response.Response;
+
+/**
+ * Thrown by ApiClient.batch() when one or more requests in a batch fail with
+ * an exception (connection error, timeout, rejection). HTTP error statuses are
+ * not failures — they come back as normal responses, like with get().
+ *
+ * Carries everything the batch produced, by input position:
+ * - getResponses(): the responses that did arrive (null where a request failed,
+ *   was cancelled or was never sent)
+ * - getErrors(): the exception for each failed request
+ *
+ * In FAIL_FAST mode getErrors() usually holds just the first failure; requests
+ * still running at that point are cancelled.
+ */
+public class BatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Responses are not serializable; both fields are null in a deserialized copy. */
+    private final transient List<Response> responses;
+    private final transient Map<Integer, Throwable> errors;
+
+    /**
+     * @param requests  the batch's requests, used for the message
+     * @param responses responses by input position (null where none)
+     * @param errors    failures by input position, ordered by position
+     */
+    public BatchException(List<ApiRequest> requests, List<Response> responses, Map<Integer, Throwable> errors) {
+        super(message(requests, errors), errors.values().iterator().next());
+        this.responses = Collections.unmodifiableList(responses);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /** @return responses by input position; null where the request produced none */
+    public List<Response> getResponses() { return responses; }
+
+    /** @return the failure of each failed request, keyed by input position */
+    public Map<Integer, Throwable> getErrors() { return errors; }
+
+    private static String message(List<ApiRequest> requests, Map<Integer, Throwable> errors) {
+        return errors.size() + " of " + requests.size() + " batch request(s) failed: "
+                + errors.entrySet().stream()
+                        .map(e -> "[" + e.getKey() + "] " + requests.get(e.getKey()).method() + " "
+                                + requests.get(e.getKey()).path() + " → " + e.getValue())
+                        .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,110 @@
+package api;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.restassured.response.Response;
+
+/**
+ * HttpTransport decorator that answers repeated GETs from a ResponseCache.
+ *
+ * For a GET:
+ * - fresh entry → returned without a request (hit)
+ * - stale entry with ETag/Last-Modified → conditional GET with If-None-Match /
+ *   If-Modified-Since; a 304 returns the stored body (revalidation), a 200
+ *   replaces it (miss)
+ * - no entry → normal GET, stored if cacheable (miss)
+ *
+ * Any successful POST/PUT/PATCH/DELETE invalidates cached entries under the
+ * same top-level collection, so a test that updates /users/7 never reads back
+ * a stale /users/7 or /users.
+ *
+ * Streams (stream()) always bypass the cache.
+ *
+ * Enabled for every ApiClient with -DapiCache=true.
+ */
+public class CachingTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final String baseUrl;
+    private final ResponseCache cache;
+
+    /**
+     * Wraps a transport.
+     *
+     * @param delegate the transport that performs the actual exchanges
+     * @param baseUrl  the delegate's base URL, part of every cache key
+     * @param cache    where responses are stored (usually ResponseCache.shared())
+     */
+    public CachingTransport(HttpTransport delegate, String baseUrl, ResponseCache cache) {
+        this.delegate = delegate;
+        this.baseUrl = baseUrl;
+        this.cache = cache;
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        if (!isGet(request)) {
+            Response res = delegate.execute(request);
+            invalidateOnSuccess(request, res);
+            return res;
+        }
+        ResponseCache.Key key = key(request);
+        ResponseCache.Entry entry = cache.lookup(key);
+        if (entry != null && cache.isFresh(entry)) return cache.hit(entry);
+        return complete(key, entry, delegate.execute(conditional(request, entry)));
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        if (!isGet(request)) {
+            CompletableFuture<Response> call = delegate.executeAsync(request, executor);
+            return Futures.cancelling(call.thenApply(res -> {
+                invalidateOnSuccess(request, res);
+                return res;
+            }), call);
+        }
+        ResponseCache.Key key = key(request);
+        ResponseCache.Entry entry = cache.lookup(key);
+        if (entry != null && cache.isFresh(entry)) return CompletableFuture.completedFuture(cache.hit(entry));
+        CompletableFuture<Response> call = delegate.executeAsync(conditional(request, entry), executor);
+        return Futures.cancelling(call.thenApply(res -> complete(key, entry, res)), call);
+    }
+
+    @Override
+    public InputStream stream(ApiRequest request) { return delegate.stream(request); }
+
+    @Override
+    public Optional<ConnectionPoolStats> poolStats() { return delegate.poolStats(); }
+
+    /** Closes the delegate. Cached entries stay in the shared cache. */
+    @Override
+    public void close() { delegate.close(); }
+
+    private static boolean isGet(ApiRequest request) {
+        return "GET".equals(request.method()) && request.body() == null;
+    }
+
+    private ResponseCache.Key key(ApiRequest request) {
+        return new ResponseCache.Key(baseUrl, request.path(), request.headers());
+    }
+
+    /** Adds validators from a stale entry, if it has any. */
+    private static ApiRequest conditional(ApiRequest request, ResponseCache.Entry stale) {
+        if (stale == null) return request;
+        if (stale.etag != null) request = request.withHeader("If-None-Match", stale.etag);
+        if (stale.lastModified != null) request = request.withHeader("If-Modified-Since", stale.lastModified);
+        return request;
+    }
+
+    private Response complete(ResponseCache.Key key, ResponseCache.Entry stale, Response res) {
+        if (res.statusCode() == 304 && stale != null && stale.hasValidators()) return cache.revalidated(stale);
+        return cache.store(key, res);
+    }
+
+    private void invalidateOnSuccess(ApiRequest request, Response res) {
+        if (res.statusCode() < 400) cache.invalidate(baseUrl, request.path());
+    }
+}
@@ -0,0 +1,381 @@
+package api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import config.TestConfig;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * A recording of HTTP exchanges on disk, replayed through a memory-mapped index.
+ *
+ * File layout (big-endian; str = int length + UTF-8 bytes):
+ *
+ *   "APICAS01"                        magic
+ *   int count
+ *   count × (long key, int offset)    strict index, sorted by key
+ *   count × (long key, int offset)    lenient index, sorted by key
+ *   count × record, in recording order:
+ *     str method, str path, long bodyHash,
+ *     int status, str statusLine, str contentType,
+ *     int headerCount, headerCount × (str name, str value),
+ *     int bodyLength, body
+ *
+ * Offsets are relative to the first record. open() maps the file and reads
+ * nothing up front: a lookup binary-searches the index in place and decodes
+ * only the record it returns, so opening a cassette of thousands of exchanges
+ * costs a few page faults instead of a parse.
+ *
+ * Identical requests (e.g. GET /users/1 before and after a PUT) replay their
+ * recordings in order; once those run out, the last one repeats.
+ *
+ * Instances are thread-safe.
+ */
+public final class Cassette {
+
+    private static final byte[] MAGIC = "APICAS01".getBytes(StandardCharsets.US_ASCII);
+    private static final int INDEX_ENTRY = Long.BYTES + Integer.BYTES;
+
+    /** 64-bit FNV-1a: cheap, and stable across JVMs, unlike String.hashCode() widened. */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Response headers that describe the wire encoding, not the decoded body a cassette stores. */
+    private static final List<String> WIRE_HEADERS = List.of("content-encoding", "content-length", "transfer-encoding");
+
+    /** How a replayed request is matched to a recorded one. */
+    public enum Match {
+        /** Method, path including query string, and request body. */
+        STRICT,
+        /** Method and path; the body and the order of query parameters are ignored. */
+        LENIENT;
+
+        /** @return the match mode selected by TestConfig.API_CASSETTE_MATCH */
+        static Match fromConfig() {
+            try {
+                return valueOf(TestConfig.API_CASSETTE_MATCH.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported apiCassetteMatch: " + TestConfig.API_CASSETTE_MATCH
+                        + " (expected strict or lenient)");
+            }
+        }
+    }
+
+    /**
+     * One recorded exchange: the request's identity and the full response.
+     *
+     * @param method   the request method
+     * @param path     the request path, with query string
+     * @param bodyHash hash of the request body bytes (0 for no body)
+     * @param body     the decoded response body
+     */
+    public record Exchange(String method, String path, long bodyHash, int statusCode, String statusLine,
+                           String contentType, Headers headers, byte[] body) {
+
+        /**
+         * Captures a completed exchange. Reads the response body, which REST
+         * Assured keeps, so the response can still be returned to the caller.
+         *
+         * @param request the request as sent
+         * @param res     its response
+         * @return the exchange to record
+         */
+        static Exchange of(ApiRequest request, Response res) {
+            List<Header> headers = new ArrayList<>();
+            for (Header h : res.headers()) {
+                if (!WIRE_HEADERS.contains(h.getName().toLowerCase(Locale.ROOT))) headers.add(h);
+            }
+            return new Exchange(request.method(), request.path(), Cassette.bodyHash(request), res.statusCode(),
+                    res.statusLine(), res.contentType(), new Headers(headers), res.asByteArray());
+        }
+
+        /** @return a REST Assured Response equivalent to the recorded one */
+        Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(statusCode)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType == null ? "" : contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+
+    private final Path file;
+    private final ByteBuffer map;
+    private final int count;
+    private final int strictIndex;
+    private final int lenientIndex;
+    private final int records;
+
+    /** How many times each distinct request has been replayed, to step through repeated recordings. */
+    private final Map<String, AtomicInteger> plays = new ConcurrentHashMap<>();
+
+    private Cassette(Path file, ByteBuffer map) {
+        this.file = file;
+        this.map = map;
+        byte[] magic = new byte[MAGIC.length];
+        if (map.capacity() < MAGIC.length + Integer.BYTES || !Arrays.equals(read(0, magic), MAGIC)) {
+            throw new IllegalStateException("Not a cassette file: " + file);
+        }
+        this.count = map.getInt(MAGIC.length);
+        this.strictIndex = MAGIC.length + Integer.BYTES;
+        this.lenientIndex = strictIndex + count * INDEX_ENTRY;
+        this.records = lenientIndex + count * INDEX_ENTRY;
+    }
+
+    /**
+     * Maps a cassette file read-only.
+     *
+     * @param file the cassette
+     * @return the opened cassette
+     * @throws IllegalStateException if the file is missing or not a cassette
+     */
+    public static Cassette open(Path file) {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return new Cassette(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("No cassette at " + file + "; record one with -DapiCassette=record", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open cassette " + file, e);
+        }
+    }
+
+    /**
+     * Writes exchanges to a cassette file, replacing it atomically.
+     *
+     * @param file      the cassette; parent directories are created
+     * @param exchanges the exchanges in recording order
+     */
+    public static void write(Path file, List<Exchange> exchanges) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        long[][] strict = new long[exchanges.size()][];
+        long[][] lenient = new long[exchanges.size()][];
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            for (int i = 0; i < exchanges.size(); i++) {
+                Exchange e = exchanges.get(i);
+                strict[i] = new long[] {key(e.method(), e.path(), e.bodyHash()), out.size()};
+                lenient[i] = new long[] {key(e.method(), lenientPath(e.path()), 0), out.size()};
+                writeString(out, e.method());
+                writeString(out, e.path());
+                out.writeLong(e.bodyHash());
+                out.writeInt(e.statusCode());
+                writeString(out, e.statusLine());
+                writeString(out, e.contentType());
+                out.writeInt(e.headers().size());
+                for (Header h : e.headers()) {
+                    writeString(out, h.getName());
+                    writeString(out, h.getValue());
+                }
+                out.writeInt(e.body().length);
+                out.write(e.body());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // in-memory streams do not fail
+        }
+
+        Comparator<long[]> byKey = Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]);
+        Arrays.sort(strict, byKey);
+        Arrays.sort(lenient, byKey);
+        ByteBuffer head = ByteBuffer.allocate(MAGIC.length + Integer.BYTES + 2 * exchanges.size() * INDEX_ENTRY);
+        head.put(MAGIC).putInt(exchanges.size());
+        for (long[] entry : strict) head.putLong(entry[0]).putInt((int) entry[1]);
+        for (long[] entry : lenient) head.putLong(entry[0]).putInt((int) entry[1]);
+
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(head.array());
+                body.writeTo(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write cassette " + file, e);
+        }
+    }
+
+    /**
+     * Finds the recorded exchange for a request.
+     *
+     * @param request the request to answer
+     * @param match   how to compare it with recorded requests
+     * @return the next recording of this request, or null if there is none
+     */
+    public Exchange find(ApiRequest request, Match match) {
+        String path = match == Match.STRICT ? request.path() : lenientPath(request.path());
+        long bodyHash = match == Match.STRICT ? bodyHash(request) : 0;
+        long key = key(request.method(), path, bodyHash);
+        int index = match == Match.STRICT ? strictIndex : lenientIndex;
+
+        List<Integer> candidates = new ArrayList<>(2);
+        for (int i = lowerBound(index, key); i < count && map.getLong(index + i * INDEX_ENTRY) == key; i++) {
+            int offset = records + map.getInt(index + i * INDEX_ENTRY + Long.BYTES);
+            Cursor c = new Cursor(offset);
+            if (!c.string().equals(request.method())) continue;   // hash collision
+            String recordedPath = c.string();
+            long recordedBodyHash = c.int64();
+            boolean same = match == Match.STRICT
+                    ? recordedPath.equals(path) && recordedBodyHash == bodyHash
+                    : lenientPath(recordedPath).equals(path);
+            if (same) candidates.add(offset);
+        }
+        if (candidates.isEmpty()) return null;
+        int play = plays.computeIfAbsent(match + " " + request.method() + " " + path + " " + bodyHash,
+                k -> new AtomicInteger()).getAndIncrement();
+        return decode(candidates.get(Math.min(play, candidates.size() - 1)));
+    }
+
+    /** @return the number of recorded exchanges */
+    public int size() { return count; }
+
+    /** @return the cassette file */
+    public Path file() { return file; }
+
+    /**
+     * Hashes the request body as the transports would send it. JSON bodies are
+     * hashed with their object keys sorted: a Map.of() body serializes its keys
+     * in a different order in every JVM, and must still match its recording.
+     *
+     * @param request the request
+     * @return a 64-bit hash of the body, 0 without a body
+     */
+    static long bodyHash(ApiRequest request) {
+        if (request.body() == null) return 0;
+        byte[] bytes = Compression.toBytes(request.body());
+        try {
+            bytes = canonical(JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8))).toString()
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonParseException e) {
+            // not JSON: hash the bytes as sent
+        }
+        return fnv(FNV_OFFSET, bytes);
+    }
+
+    private static JsonElement canonical(JsonElement json) {
+        if (json.isJsonArray()) {
+            JsonArray sorted = new JsonArray();
+            json.getAsJsonArray().forEach(e -> sorted.add(canonical(e)));
+            return sorted;
+        }
+        if (!json.isJsonObject()) return json;
+        JsonObject sorted = new JsonObject();
+        new TreeMap<>(json.getAsJsonObject().asMap()).forEach((name, value) -> sorted.add(name, canonical(value)));
+        return sorted;
+    }
+
+    /** Sorts the query parameters, so lenient matching ignores their order. */
+    static String lenientPath(String path) {
+        int q = path.indexOf('?');
+        if (q < 0) return path;
+        String[] params = path.substring(q + 1).split("&");
+        Arrays.sort(params);
+        return path.substring(0, q) + "?" + String.join("&", params);
+    }
+
+    private static long fnv(long hash, byte[] bytes) {
+        for (byte b : bytes) hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static long key(String method, String path, long bodyHash) {
+        long hash = fnv(FNV_OFFSET, (method + " " + path).getBytes(StandardCharsets.UTF_8));
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) hash = (hash ^ ((bodyHash >>> shift) & 0xff)) * FNV_PRIME;
+        return hash;
+    }
+
+    /** @return the first position in the index whose key is not less than key */
+    private int lowerBound(int index, long key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (map.getLong(index + mid * INDEX_ENTRY) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private Exchange decode(int offset) {
+        Cursor c = new Cursor(offset);
+        String method = c.string();
+        String path = c.string();
+        long bodyHash = c.int64();
+        int status = c.int32();
+        String statusLine = c.string();
+        String contentType = c.string();
+        int headerCount = c.int32();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) headers.add(new Header(c.string(), c.string()));
+        byte[] body = c.bytes(c.int32());
+        return new Exchange(method, path, bodyHash, status, statusLine, contentType, new Headers(headers), body);
+    }
+
+    /** Absolute bulk read; never moves the shared buffer's position, so concurrent lookups are safe. */
+    private byte[] read(int offset, byte[] into) {
+        map.get(offset, into);
+        return into;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Sequential reader over one record of the mapped file. */
+    private final class Cursor {
+        private int pos;
+
+        Cursor(int pos) { this.pos = pos; }
+
+        int int32() {
+            int v = map.getInt(pos);
+            pos += Integer.BYTES;
+            return v;
+        }
+
+        long int64() {
+            long v = map.getLong(pos);
+            pos += Long.BYTES;
+            return v;
+        }
+
+        byte[] bytes(int n) {
+            byte[] b = read(pos, new byte[n]);
+            pos += n;
+            return b;
+        }
+
+        String string() { return new String(bytes(int32()), StandardCharsets.UTF_8); }
+    }
+}
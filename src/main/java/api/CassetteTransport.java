@@ -0,0 +1,198 @@
+package api;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import config.TestConfig;
+import io.restassured.response.Response;
+
+/**
+ * HttpTransport that records exchanges to a Cassette, or answers from one.
+ *
+ * - record: every exchange goes to the server and is appended to the
+ *   cassette of its base URL, which is written when the transport closes
+ *   (and at JVM exit for anything recorded later)
+ * - replay: requests are answered from the cassette; nothing is sent and no
+ *   connection pool or socket is created. A request without a recording
+ *   fails with IllegalStateException instead of silently going live.
+ *
+ * Selected for every ApiClient by TestConfig.API_CASSETTE. Re-recording is
+ * the same run with -DapiCassette=record.
+ *
+ * Recordings and opened cassettes are kept per file for the whole JVM, so
+ * clients of the same base URL created one after another extend the same
+ * recording and step through the same replay sequence.
+ *
+ * stream() goes through execute(), so streamed bodies are held in memory
+ * while recording or replaying.
+ */
+public class CassetteTransport implements HttpTransport {
+
+    /** The cassette modes of TestConfig.API_CASSETTE. */
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        /** @return the mode selected by TestConfig.API_CASSETTE */
+        static Mode fromConfig() {
+            try {
+                return valueOf(TestConfig.API_CASSETTE.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported apiCassette: " + TestConfig.API_CASSETTE
+                        + " (expected off, record or replay)");
+            }
+        }
+    }
+
+    /** Exchanges recorded in this JVM, per cassette file. */
+    private static final Map<Path, Recording> RECORDINGS = new ConcurrentHashMap<>();
+
+    /** Cassettes opened for replay in this JVM, per file. */
+    private static final Map<Path, Cassette> CASSETTES = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> RECORDINGS.values().forEach(Recording::save),
+                "api-cassette-save"));
+    }
+
+    /** The exchanges recorded for one cassette file. */
+    private static final class Recording {
+        private final Path file;
+        private final List<Cassette.Exchange> exchanges = new ArrayList<>();
+        private boolean dirty;
+
+        Recording(Path file) { this.file = file; }
+
+        synchronized void add(Cassette.Exchange exchange) {
+            exchanges.add(exchange);
+            dirty = true;
+        }
+
+        synchronized void save() {
+            if (!dirty) return;
+            Cassette.write(file, exchanges);
+            dirty = false;
+        }
+    }
+
+    private final HttpTransport delegate;
+    private final Recording recording;
+    private final Cassette cassette;
+    private final Cassette.Match match;
+
+    private CassetteTransport(HttpTransport delegate, Recording recording, Cassette cassette, Cassette.Match match) {
+        this.delegate = delegate;
+        this.recording = recording;
+        this.cassette = cassette;
+        this.match = match;
+    }
+
+    /**
+     * Applies TestConfig.API_CASSETTE to a base URL's transport.
+     *
+     * @param baseUrl the API root
+     * @param live    creates the real transport; not called when replaying
+     * @return the live transport, the live transport recording, or a replayer
+     */
+    static HttpTransport fromConfig(String baseUrl, Function<String, HttpTransport> live) {
+        switch (Mode.fromConfig()) {
+            case RECORD:
+                return recording(live.apply(baseUrl), file(baseUrl));
+            case REPLAY:
+                return replaying(file(baseUrl), Cassette.Match.fromConfig());
+            default:
+                return live.apply(baseUrl);
+        }
+    }
+
+    /**
+     * Records every exchange of a transport. The first recording of a file in
+     * the JVM starts from empty, replacing the cassette on disk when saved.
+     *
+     * @param delegate the transport that talks to the server
+     * @param file     the cassette to write
+     * @return the recording transport
+     */
+    public static CassetteTransport recording(HttpTransport delegate, Path file) {
+        return new CassetteTransport(delegate, RECORDINGS.computeIfAbsent(file, Recording::new), null, null);
+    }
+
+    /**
+     * Answers requests from a cassette.
+     *
+     * @param file  the cassette to replay
+     * @param match how requests are matched to recordings
+     * @return the replaying transport
+     * @throws IllegalStateException if the cassette does not exist
+     */
+    public static CassetteTransport replaying(Path file, Cassette.Match match) {
+        return new CassetteTransport(null, null, CASSETTES.computeIfAbsent(file, Cassette::open), match);
+    }
+
+    /**
+     * The cassette file of a base URL under TestConfig.API_CASSETTE_DIR, e.g.
+     * jsonplaceholder.typicode.com.cassette.
+     *
+     * @param baseUrl the API root
+     * @return the cassette path
+     */
+    static Path file(String baseUrl) {
+        String name = baseUrl.replaceFirst("^[A-Za-z][A-Za-z0-9+.-]*://", "")
+                .replaceAll("/+$", "")
+                .replaceAll("[^A-Za-z0-9.-]+", "_");
+        return Path.of(TestConfig.API_CASSETTE_DIR, name + ".cassette");
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        if (cassette != null) return replay(request);
+        Response res = delegate.execute(request);
+        recording.add(Cassette.Exchange.of(request, res));
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        if (cassette != null) {
+            try {
+                return CompletableFuture.completedFuture(replay(request));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<Response> call = delegate.executeAsync(request, executor);
+        return Futures.cancelling(call.thenApply(res -> {
+            recording.add(Cassette.Exchange.of(request, res));
+            return res;
+        }), call);
+    }
+
+    @Override
+    public Optional<ConnectionPoolStats> poolStats() {
+        return delegate == null ? Optional.empty() : delegate.poolStats();
+    }
+
+    /** Saves the recording and closes the delegate. A replayed cassette stays mapped for later clients. */
+    @Override
+    public void close() {
+        if (recording != null) recording.save();
+        if (delegate != null) delegate.close();
+    }
+
+    private Response replay(ApiRequest request) {
+        Cassette.Exchange exchange = cassette.find(request, match);
+        if (exchange == null) {
+            throw new IllegalStateException("No recorded exchange for " + request.method() + " " + request.path()
+                    + " in " + cassette.file() + " (" + match.name().toLowerCase(Locale.ROOT)
+                    + " matching); re-record with -DapiCassette=record");
+        }
+        return exchange.toResponse();
+    }
+}
@@ -0,0 +1,214 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import config.TestConfig;
+
+/**
+ * JVM-wide registry of the expensive parts of an ApiClient — the transport
+ * stack (with its connection pool) and the async executor — shared by every
+ * client of the same base URL.
+ *
+ * Clients acquire a reference-counted Lease. The first lease for a base URL
+ * creates the resources; closing the last one closes the transport and shuts
+ * the executor down. Threads and sockets therefore scale with the number of
+ * APIs under test, not with the number of test classes that create a client.
+ *
+ * Pool threads are daemon threads, so a client that is never shut down keeps
+ * its share alive until the JVM exits but never holds the JVM open.
+ *
+ * Example:
+ *   try (ClientRegistry.Lease lease = ClientRegistry.shared().acquire("http://localhost:8080")) {
+ *       Response r = lease.transport().execute(ApiRequest.get("/health"));
+ *   }
+ */
+public final class ClientRegistry implements AutoCloseable {
+
+    private static final ClientRegistry SHARED =
+            new ClientRegistry(ClientRegistry::newTransport, baseUrl -> newExecutor());
+
+    private final Function<String, HttpTransport> transports;
+    private final Function<String, ExecutorService> executors;
+    private final Map<String, Resources> byBaseUrl = new HashMap<>();   // guarded by this
+
+    /** The shared resources of one base URL. */
+    private static final class Resources {
+        final String baseUrl;
+        final HttpTransport transport;
+        final ExecutorService executor;
+        int references;   // guarded by the registry
+
+        Resources(String baseUrl, HttpTransport transport, ExecutorService executor) {
+            this.baseUrl = baseUrl;
+            this.transport = transport;
+            this.executor = executor;
+        }
+
+        void close() {
+            executor.shutdown();
+            transport.close();
+        }
+    }
+
+    /**
+     * One client's reference to the shared resources of a base URL. Closing it
+     * more than once has no further effect.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Resources resources;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Resources resources) { this.resources = resources; }
+
+        /** @return the base URL the resources serve */
+        public String baseUrl() { return resources.baseUrl; }
+
+        /** @return the shared transport stack; do not close it directly */
+        public HttpTransport transport() { return resources.transport; }
+
+        /** @return the shared async executor; do not shut it down directly */
+        public ExecutorService executor() { return resources.executor; }
+
+        /** Releases this reference; the last one closes the transport and executor. */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) release(resources);
+        }
+    }
+
+    /** @return the registry every ApiClient in the JVM uses */
+    public static ClientRegistry shared() { return SHARED; }
+
+    /**
+     * Creates a registry with its own resource factories.
+     * Package-private so tests can count what gets created and closed.
+     *
+     * @param transports creates the transport stack for a base URL
+     * @param executors  creates the async executor for a base URL
+     */
+    ClientRegistry(Function<String, HttpTransport> transports, Function<String, ExecutorService> executors) {
+        this.transports = transports;
+        this.executors = executors;
+    }
+
+    /**
+     * Takes a reference to the resources for a base URL, creating them if this
+     * is the first.
+     *
+     * @param baseUrl the API root, e.g. TestConfig.API_BASE_URL
+     * @return a lease; close it (or the client holding it) when done
+     */
+    public synchronized Lease acquire(String baseUrl) {
+        Resources resources = byBaseUrl.get(baseUrl);
+        if (resources == null) {
+            HttpTransport transport = transports.apply(baseUrl);
+            try {
+                resources = new Resources(baseUrl, transport, executors.apply(baseUrl));
+            } catch (RuntimeException e) {
+                transport.close();
+                throw e;
+            }
+            byBaseUrl.put(baseUrl, resources);
+        }
+        resources.references++;
+        return new Lease(resources);
+    }
+
+    /**
+     * @param baseUrl the API root
+     * @return open leases for the base URL; 0 if it has no resources
+     */
+    public synchronized int references(String baseUrl) {
+        Resources resources = byBaseUrl.get(baseUrl);
+        return resources == null ? 0 : resources.references;
+    }
+
+    /** @return the number of base URLs that currently have resources */
+    public synchronized int size() { return byBaseUrl.size(); }
+
+    /**
+     * Closes every transport and executor regardless of open leases, e.g. at
+     * the end of a suite. Leases still held become no-ops; a later acquire()
+     * starts afresh.
+     */
+    @Override
+    public void close() {
+        List<Resources> all;
+        synchronized (this) {
+            all = new ArrayList<>(byBaseUrl.values());
+            byBaseUrl.clear();
+        }
+        all.forEach(Resources::close);
+    }
+
+    private void release(Resources resources) {
+        synchronized (this) {
+            if (--resources.references > 0 || byBaseUrl.get(resources.baseUrl) != resources) return;
+            byBaseUrl.remove(resources.baseUrl);
+        }
+        resources.close();
+    }
+
+    /**
+     * Creates the transport selected by TestConfig.API_TRANSPORT and wraps it
+     * with the optional layers enabled in TestConfig:
+     *
+     * - RateLimitedTransport over the shared RateLimits (a no-op unless
+     *   limits are configured), innermost so that retries are paced too
+     * - apiCassette=record/replay: CassetteTransport records what the rate-limited
+     *   transport exchanges, or replaces it outright (no sockets, no pacing)
+     * - apiRetries > 0: RetryingTransport with RetryPolicy.fromConfig()
+     * - apiCache=true: CachingTransport over the shared ResponseCache
+     *   (outermost, so cache hits never count against the retry budget)
+     *
+     * @param baseUrl the API root every request path is appended to
+     * @return the transport stack
+     */
+    static HttpTransport newTransport(String baseUrl) {
+        HttpTransport transport = CassetteTransport.fromConfig(baseUrl, url ->
+                new RateLimitedTransport(HttpTransport.fromConfig(url), url, RateLimits.shared()));
+        if (TestConfig.API_RETRIES > 0) transport = new RetryingTransport(transport, RetryPolicy.fromConfig());
+        if (TestConfig.API_CACHE) transport = new CachingTransport(transport, baseUrl, ResponseCache.shared());
+        return transport;
+    }
+
+    /**
+     * Creates the async executor selected by TestConfig.API_EXECUTOR.
+     *
+     * - fixed: TestConfig.API_POOL_SIZE daemon platform threads; extra calls wait in its queue
+     * - virtual: a new virtual thread per request — blocking I/O parks the virtual
+     *   thread instead of a carrier, so hundreds of calls can be in flight at once
+     *
+     * @return a new executor
+     */
+    static ExecutorService newExecutor() {
+        switch (TestConfig.API_EXECUTOR.toLowerCase()) {
+            case "fixed":
+                return Executors.newFixedThreadPool(TestConfig.API_POOL_SIZE, daemonThreads());
+            case "virtual":
+                return Executors.newVirtualThreadPerTaskExecutor();
+            default:
+                throw new IllegalArgumentException("Unsupported apiExecutor: " + TestConfig.API_EXECUTOR
+                        + " (expected fixed or virtual)");
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "api-client-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package api;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.google.gson.Gson;
+
+import config.TestConfig;
+
+/**
+ * Content-encoding helpers shared by the transports.
+ *
+ * With TestConfig.API_COMPRESSION on, transports advertise
+ * "Accept-Encoding: gzip, deflate" and decode what comes back, and request
+ * bodies of at least TestConfig.API_GZIP_MIN_BYTES are sent gzipped with
+ * "Content-Encoding: gzip". Smaller bodies go as-is: below about a kilobyte
+ * the gzip header and CPU cost outweigh the saving.
+ */
+final class Compression {
+
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final Gson GSON = new Gson();
+
+    private Compression() { }
+
+    /** @return true if transports should negotiate compression */
+    static boolean enabled() { return TestConfig.API_COMPRESSION; }
+
+    /**
+     * Serializes a request body the way JdkHttpTransport sends it: byte[] as-is,
+     * a ByteBuffer's remaining bytes (without moving its position), String as
+     * UTF-8, anything else as JSON via Gson.
+     *
+     * @param body the request body, not null
+     * @return the body bytes
+     */
+    static byte[] toBytes(Object body) {
+        if (body instanceof byte[] bytes) return bytes;
+        if (body instanceof ByteBuffer buffer) {
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                    && buffer.remaining() == buffer.array().length) return buffer.array();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+        String text = body instanceof String s ? s : GSON.toJson(body);
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decides whether a request body should be sent gzipped.
+     *
+     * @param body    the serialized body
+     * @param headers the request's headers; a caller-set Content-Encoding is respected
+     * @return true if compression is on, the body is large enough and not already encoded
+     */
+    static boolean shouldGzip(byte[] body, Map<String, String> headers) {
+        return enabled() && TestConfig.API_GZIP_MIN_BYTES > 0 && body.length >= TestConfig.API_GZIP_MIN_BYTES
+                && headers.keySet().stream().noneMatch("Content-Encoding"::equalsIgnoreCase);
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // in-memory streams do not fail
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a response body.
+     *
+     * @param body     the bytes as received
+     * @param encoding the Content-Encoding header, or null
+     * @return the decoded bytes; body itself for identity or unknown encodings
+     * @throws UncheckedIOException if the body is not valid for its encoding
+     */
+    static byte[] decode(byte[] body, String encoding) {
+        if (body.length == 0 || !isCompressed(encoding)) return body;
+        try (InputStream in = decode(new ByteArrayInputStream(body), encoding)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode " + encoding + " response body", e);
+        }
+    }
+
+    /**
+     * Wraps a streamed response body in a decoder.
+     *
+     * @param body     the body as received
+     * @param encoding the Content-Encoding header, or null
+     * @return a stream of decoded bytes; body itself for identity or unknown encodings
+     * @throws IOException if the gzip header cannot be read
+     */
+    static InputStream decode(InputStream body, String encoding) throws IOException {
+        if (!isCompressed(encoding)) return body;
+        String e = encoding.trim().toLowerCase(Locale.ROOT);
+        if (e.equals("gzip") || e.equals("x-gzip")) return new GZIPInputStream(body);
+        // "deflate" is meant to be zlib-wrapped, but some servers send raw deflate — peek to tell them apart.
+        InputStream buffered = body.markSupported() ? body : new BufferedInputStream(body);
+        buffered.mark(2);
+        int cmf = buffered.read();
+        int flg = buffered.read();
+        buffered.reset();
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(buffered, new Inflater(!zlib));
+    }
+
+    /**
+     * @param encoding the Content-Encoding header, or null
+     * @return whether decode() transforms bodies with this encoding
+     */
+    static boolean isCompressed(String encoding) {
+        if (encoding == null) return false;
+        String e = encoding.trim().toLowerCase(Locale.ROOT);
+        return e.equals("gzip") || e.equals("x-gzip") || e.equals("deflate");
+    }
+}
@@ -0,0 +1,15 @@
+package api;
+
+/**
+ * Point-in-time snapshot of a transport's connection pool.
+ *
+ * Example:
+ *   api.getPoolStats().ifPresent(s -> System.out.println(s));
+ *   // ConnectionPoolStats[leased=4, available=6, pending=0, max=50]
+ *
+ * @param leased    connections currently handed out to in-flight requests
+ * @param available idle keep-alive connections ready for reuse
+ * @param pending   requests waiting for a connection because the pool is exhausted
+ * @param max       the pool's total connection limit
+ */
+public record ConnectionPoolStats(int leased, int available, int pending, int max) { }
@@ -0,0 +1,74 @@
+package api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * CompletableFuture helpers that make cancellation reach the HTTP exchange.
+ *
+ * A CompletableFuture derived with thenApply()/thenCompose() does not pass a
+ * cancel() on to the future it came from, and supplyAsync() never interrupts
+ * the thread running its task. Transports and decorators use these helpers
+ * so that cancelling (or timing out) the future a caller holds aborts the
+ * request underneath it.
+ */
+final class Futures {
+
+    private Futures() { }
+
+    /**
+     * Links an outer future to the one it was derived from: if the outer one
+     * completes exceptionally — cancel(), orTimeout(), completeExceptionally() —
+     * the inner one is cancelled too.
+     *
+     * @param outer the future handed to the caller
+     * @param inner the future it depends on
+     * @return outer
+     */
+    static <T> CompletableFuture<T> cancelling(CompletableFuture<T> outer, Future<?> inner) {
+        outer.whenComplete((r, e) -> { if (e != null) inner.cancel(true); });
+        return outer;
+    }
+
+    /**
+     * Like CompletableFuture.supplyAsync(), but completing the returned future
+     * exceptionally before the task finishes interrupts the thread running it
+     * and calls onAbort. A task still queued when that happens is skipped.
+     *
+     * @param task     blocking work
+     * @param executor where to run it
+     * @param onAbort  extra abort action (e.g. closing the socket), run once on abort; may be null
+     * @return the task's future
+     */
+    static <T> CompletableFuture<T> supplyInterruptibly(Supplier<T> task, Executor executor, Runnable onAbort) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Object lock = new Object();
+        Thread[] runner = new Thread[1];   // guarded by lock
+        executor.execute(() -> {
+            synchronized (lock) {
+                if (future.isDone()) return;
+                runner[0] = Thread.currentThread();
+            }
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (lock) {
+                    runner[0] = null;
+                    Thread.interrupted();   // an abort's interrupt must not leak into the next pooled task
+                }
+            }
+        });
+        future.whenComplete((r, e) -> {
+            if (e == null) return;
+            if (onAbort != null) onAbort.run();
+            synchronized (lock) {
+                if (runner[0] != null) runner[0].interrupt();
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,109 @@
+package api;
+
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import config.TestConfig;
+import io.restassured.response.Response;
+
+/**
+ * Transport SPI behind ApiClient's get/post/put/patch/delete methods.
+ *
+ * A transport turns an ApiRequest into a REST Assured Response. Whatever
+ * library does the actual I/O, callers always get the same Response type back,
+ * so service objects (UserApi) and test assertions do not change when the
+ * transport does.
+ *
+ * Implementations:
+ * - RestAssuredTransport — the original REST Assured stack (blocking)
+ * - JdkHttpTransport — java.net.http.HttpClient with HTTP/2 and non-blocking sendAsync
+ *
+ * Selected per client by TestConfig.API_TRANSPORT.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    /**
+     * Creates the transport selected by TestConfig.API_TRANSPORT.
+     *
+     * - restassured: REST Assured, blocking; async calls occupy an executor thread
+     * - jdk: java.net.http.HttpClient with HTTP/2 and non-blocking sendAsync
+     *
+     * @param baseUrl the API root every request path is appended to
+     * @return a new transport; the caller owns it and must close it
+     */
+    static HttpTransport fromConfig(String baseUrl) {
+        switch (TestConfig.API_TRANSPORT.toLowerCase()) {
+            case "restassured":
+                return new RestAssuredTransport(baseUrl);
+            case "jdk":
+                return new JdkHttpTransport(baseUrl);
+            default:
+                throw new IllegalArgumentException("Unsupported apiTransport: " + TestConfig.API_TRANSPORT
+                        + " (expected restassured or jdk)");
+        }
+    }
+
+    /**
+     * Sends the request and blocks until the full response is received.
+     *
+     * @param request the request to send
+     * @return the complete HTTP response
+     */
+    Response execute(ApiRequest request);
+
+    /**
+     * Sends the request without blocking the caller.
+     *
+     * The default runs execute() on the given executor, which is all a blocking
+     * library can offer. Transports with native async I/O override this and
+     * ignore the executor.
+     *
+     * Cancellation contract: if the returned future is completed by someone
+     * else first — cancel(), orTimeout(), completeExceptionally() — the
+     * exchange must be abandoned and any thread it occupies released. The
+     * default interrupts the thread running execute(); decorators pass the
+     * cancellation on to their delegate's future.
+     *
+     * @param request  the request to send
+     * @param executor the executor to block on if the transport has no async I/O
+     * @return a future that completes with the response
+     */
+    default CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        return Futures.supplyInterruptibly(() -> execute(request), executor, null);
+    }
+
+    /**
+     * Sends the request and returns the response body as a stream, without
+     * reading it into memory first. The caller must close the stream; that also
+     * releases the connection. A gzip/deflate body is already decoded, so the
+     * stream always yields the plain bytes whatever Content-Encoding the server sent.
+     *
+     * The default relies on the Response's own asInputStream(), which streams
+     * for REST Assured as long as nothing else has read the body.
+     *
+     * @param request the request to send
+     * @return the unread response body
+     * @throws IllegalStateException if the server answers with a 4xx/5xx status
+     */
+    default InputStream stream(ApiRequest request) {
+        Response res = execute(request);
+        if (res.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.path()
+                    + " returned " + res.statusCode() + ": " + res.asString());
+        }
+        return res.asInputStream();
+    }
+
+    /**
+     * Returns a snapshot of the transport's connection pool, if it exposes one.
+     *
+     * @return pool statistics, or empty if the transport's pool is not observable
+     */
+    default Optional<ConnectionPoolStats> poolStats() { return Optional.empty(); }
+
+    /** Releases connections and threads held by the transport. Does nothing by default. */
+    @Override
+    default void close() { }
+}
@@ -0,0 +1,150 @@
+package api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Permit-based gate that bounds how many async requests a client has accepted
+ * but not yet finished.
+ *
+ * Every async call takes one permit before it is handed to the executor and
+ * gives it back when the call completes (or is cancelled before it starts).
+ * When all permits are taken, new submissions either:
+ *
+ * - BLOCK — the submitting thread waits for a permit (backpressure), or
+ * - REJECT — a future already failed with RejectedExecutionException is returned.
+ *
+ * This keeps a test that fires 10k postAsync calls from buffering all of them in
+ * the executor queue, and keeps queueing time out of the measured latency.
+ *
+ * Example:
+ *   InFlightLimiter limiter = new InFlightLimiter(50, InFlightLimiter.Overflow.BLOCK);
+ *   CompletableFuture<Response> f = limiter.submit(() -> get("/users"), executor);
+ *   limiter.getInFlightCount();  // calls currently running
+ *   limiter.getQueueDepth();     // calls accepted but waiting for a thread
+ */
+public class InFlightLimiter {
+
+    /** What to do with a submission when no permit is free. */
+    public enum Overflow { BLOCK, REJECT }
+
+    /** Permits for in-flight calls, or null when the limit is 0 (unlimited). */
+    private final Semaphore permits;
+
+    private final int limit;
+    private final Overflow overflow;
+
+    /** Calls accepted (permit taken) whose futures have not completed yet. */
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    /** Accepted calls still waiting for an executor thread to pick them up. */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Creates a limiter.
+     *
+     * @param limit    maximum accepted-but-unfinished calls, or 0 for unlimited
+     * @param overflow BLOCK to make submitters wait, REJECT to fail fast when full
+     */
+    public InFlightLimiter(int limit, Overflow overflow) {
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0: " + limit);
+        this.limit = limit;
+        this.overflow = overflow;
+        this.permits = limit == 0 ? null : new Semaphore(limit);
+    }
+
+    /**
+     * Runs blocking work on the executor once a permit is available.
+     *
+     * @param call     the blocking work to run (e.g. a sync HTTP call)
+     * @param executor the executor to run it on
+     * @return a future for the call's result; already failed with
+     *         RejectedExecutionException if the limiter is full in REJECT mode
+     *         or the submitter was interrupted while waiting in BLOCK mode
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call, Executor executor) {
+        return submitAsync(ex -> CompletableFuture.supplyAsync(call, ex), executor);
+    }
+
+    /**
+     * Starts an async call once a permit is available. The permit is held until
+     * the returned future completes.
+     *
+     * The call is given a tracking wrapper around the executor: whatever it
+     * hands to that wrapper counts as queued until a thread picks it up. Calls
+     * with native async I/O (e.g. HttpClient.sendAsync) never use it and count
+     * as in flight straight away.
+     *
+     * @param call     starts the work and returns its future
+     * @param executor the executor the call may block on
+     * @return the call's future, or one already failed with RejectedExecutionException
+     *         (see submit()) or with whatever starting the call threw
+     */
+    public <T> CompletableFuture<T> submitAsync(Function<Executor, CompletableFuture<T>> call, Executor executor) {
+        if (!acquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "In-flight limit of " + limit + " reached"));
+        }
+        accepted.incrementAndGet();
+        AtomicBoolean enqueued = new AtomicBoolean();
+        AtomicBoolean started = new AtomicBoolean();
+        Executor tracked = task -> {
+            if (enqueued.compareAndSet(false, true)) queued.incrementAndGet();
+            executor.execute(() -> {
+                markStarted(enqueued, started);
+                task.run();
+            });
+        };
+        CompletableFuture<T> future;
+        try {
+            future = call.apply(tracked);
+        } catch (RuntimeException e) {
+            // E.g. a shut-down executor rejecting the task: fail the future, as a full limiter does.
+            markStarted(enqueued, started);
+            accepted.decrementAndGet();
+            release();
+            return CompletableFuture.failedFuture(e);
+        }
+        // Also covers a future cancelled while still queued: its task never runs the call.
+        future.whenComplete((r, e) -> {
+            markStarted(enqueued, started);
+            accepted.decrementAndGet();
+            release();
+        });
+        return future;
+    }
+
+    /** Moves a call out of the queued count the first time it starts or completes. */
+    private void markStarted(AtomicBoolean enqueued, AtomicBoolean started) {
+        if (enqueued.get() && started.compareAndSet(false, true)) queued.decrementAndGet();
+    }
+
+    /** @return the number of accepted calls that are executing (not waiting for a thread) */
+    public int getInFlightCount() { return Math.max(0, accepted.get() - queued.get()); }
+
+    /** @return the number of accepted calls waiting for an executor thread */
+    public int getQueueDepth() { return queued.get(); }
+
+    /** @return the configured limit, or 0 if unlimited */
+    public int getLimit() { return limit; }
+
+    private boolean acquire() {
+        if (permits == null) return true;
+        if (overflow == Overflow.REJECT) return permits.tryAcquire();
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void release() { if (permits != null) permits.release(); }
+}
@@ -0,0 +1,195 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import config.TestConfig;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * HttpTransport backed by the JDK's java.net.http.HttpClient.
+ *
+ * Compared with RestAssuredTransport:
+ * - One HttpClient (and connection pool) per transport, reused by every call
+ * - HTTP/2 when the server supports it, so concurrent requests share one
+ *   multiplexed connection instead of opening one socket each
+ * - executeAsync() uses sendAsync(): no thread is blocked while waiting for
+ *   the server, so in-flight requests are not limited by executor size
+ *
+ * Responses are converted to REST Assured Responses with ResponseBuilder, so
+ * callers keep using statusCode(), jsonPath() and friends unchanged.
+ *
+ * Request bodies: String, byte[] and ByteBuffer are sent as-is; anything else
+ * (Map, POJO) is serialized to JSON with Gson.
+ *
+ * Compression (TestConfig.API_COMPRESSION): requests advertise gzip/deflate and
+ * responses are decoded before they are wrapped; large request bodies are sent
+ * gzipped. Body sizes before and after are counted in TransferStats.
+ *
+ * Connection tuning: TestConfig.API_CONNECT_TIMEOUT_MS and API_SOCKET_TIMEOUT_MS
+ * (as the per-request response timeout) apply directly. Pool size and keep-alive
+ * are JVM-wide settings of the JDK client (jdk.httpclient.connectionPoolSize and
+ * jdk.httpclient.keepalive.timeout); they are seeded from TestConfig unless set
+ * explicitly on the command line. The JDK does not expose pool statistics, so
+ * poolStats() stays empty.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    static {
+        // Read once by the JDK when its connection pool class loads, so they must be set before the first client.
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null)
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(TestConfig.API_MAX_CONNECTIONS));
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null)
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    String.valueOf(Math.max(1, TestConfig.API_KEEP_ALIVE_MS / 1000)));
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final TransferStats stats;
+
+    /**
+     * Creates a transport for the given base URL with its own HttpClient.
+     *
+     * @param baseUrl the API root every request path is appended to
+     */
+    public JdkHttpTransport(String baseUrl) { this(baseUrl, TransferStats.shared()); }
+
+    /**
+     * Creates a transport that counts body sizes into the given stats instead
+     * of the JVM-wide ones, so a test can assert on them in isolation.
+     *
+     * @param baseUrl the API root every request path is appended to
+     * @param stats   where request and response body sizes are recorded
+     */
+    JdkHttpTransport(String baseUrl, TransferStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(TestConfig.API_CONNECT_TIMEOUT_MS))
+                .build();
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        try {
+            return toResponse(client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(request.method() + " " + request.path() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(request.method() + " " + request.path() + " interrupted", e);
+        }
+    }
+
+    /**
+     * Sends the request with HttpClient.sendAsync(). The executor is not used —
+     * the response is handled by the HttpClient's own I/O machinery.
+     *
+     * Cancelling the returned future (or its deadline passing) cancels the
+     * sendAsync() exchange, which the JDK client aborts on the wire.
+     */
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                client.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray());
+        return Futures.cancelling(exchange.thenApply(this::toResponse), exchange);
+    }
+
+    /**
+     * Streams the body with BodyHandlers.ofInputStream(): bytes are read from the
+     * socket only as the caller consumes them. A gzip/deflate body is decoded on
+     * the fly, so the caller reads plain bytes and must not decode it again.
+     */
+    @Override
+    public InputStream stream(ApiRequest request) {
+        try {
+            HttpResponse<InputStream> res = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            InputStream decoded = Compression.decode(res.body(), res.headers().firstValue("Content-Encoding").orElse(null));
+            if (res.statusCode() >= 400) {
+                try (InputStream body = decoded) {
+                    throw new IllegalStateException(request.method() + " " + request.path() + " returned "
+                            + res.statusCode() + ": " + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            return decoded;
+        } catch (IOException e) {
+            throw new UncheckedIOException(request.method() + " " + request.path() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(request.method() + " " + request.path() + " interrupted", e);
+        }
+    }
+
+    /** Stops accepting new requests; in-flight exchanges are allowed to finish. */
+    @Override
+    public void close() { client.shutdown(); }
+
+    private HttpRequest toHttpRequest(ApiRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                .timeout(Duration.ofMillis(TestConfig.API_SOCKET_TIMEOUT_MS))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (Compression.enabled()) builder.header("Accept-Encoding", Compression.ACCEPT_ENCODING);
+        request.headers().forEach(builder::setHeader);
+        return builder.method(request.method(), bodyPublisher(request, builder)).build();
+    }
+
+    /** Serializes the body, gzipping it (and setting Content-Encoding) if it is large enough. */
+    private HttpRequest.BodyPublisher bodyPublisher(ApiRequest request, HttpRequest.Builder builder) {
+        if (request.body() == null) return HttpRequest.BodyPublishers.noBody();
+        byte[] body = Compression.toBytes(request.body());
+        byte[] wire = body;
+        if (Compression.shouldGzip(body, request.headers())) {
+            wire = Compression.gzip(body);
+            builder.setHeader("Content-Encoding", "gzip");
+        }
+        stats.recordRequest(body.length, wire.length);
+        return HttpRequest.BodyPublishers.ofByteArray(wire);
+    }
+
+    /**
+     * Wraps a JDK response as a REST Assured Response, decoding a gzip/deflate body.
+     * HTTP/2 pseudo-headers (":status") are dropped. A decoded body loses its
+     * Content-Encoding header and gets a Content-Length for the decoded size, as
+     * the Apache client does for REST Assured, so no later layer decodes it twice.
+     */
+    private Response toResponse(HttpResponse<byte[]> res) {
+        String encoding = res.headers().firstValue("Content-Encoding").orElse(null);
+        boolean decoded = Compression.isCompressed(encoding);
+        byte[] body = Compression.decode(res.body(), encoding);
+        stats.recordResponse(body.length, res.body().length);
+        List<Header> headers = new ArrayList<>();
+        res.headers().map().forEach((name, values) -> {
+            if (name.startsWith(":")) return;
+            if (decoded && (name.equalsIgnoreCase("Content-Encoding") || name.equalsIgnoreCase("Content-Length"))) return;
+            values.forEach(v -> headers.add(new Header(name, v)));
+        });
+        if (decoded) headers.add(new Header("Content-Length", String.valueOf(body.length)));
+        String version = res.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return new ResponseBuilder()
+                .setStatusCode(res.statusCode())
+                .setStatusLine(version + " " + res.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(res.headers().firstValue("Content-Type").orElse(""))
+                .setBody(body)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Lazily reads the elements of a top-level JSON array from an InputStream.
+ *
+ * Only one element is materialized at a time, so a response with millions of
+ * records can be validated or counted in constant memory — unlike
+ * Response.jsonPath(), which parses the whole document into a tree first.
+ *
+ * The returned Stream owns the InputStream: close it (try-with-resources) to
+ * release the underlying connection, even if not fully consumed.
+ *
+ * Example:
+ *   try (Stream<User> users = JsonArrayStream.of(in, User.class)) {
+ *       long withEmail = users.filter(u -> u.email() != null).count();
+ *   }
+ */
+public final class JsonArrayStream {
+
+    private static final Gson GSON = new Gson();
+
+    private JsonArrayStream() { }
+
+    /**
+     * Streams the array's elements, each bound to the given type with Gson.
+     * Use JsonElement.class (or JsonObject.class) for untyped access.
+     *
+     * @param in   the response body; must contain a JSON array at the top level
+     * @param type the element type
+     * @return a sequential, lazily parsed stream that closes the input when closed
+     */
+    public static <T> Stream<T> of(InputStream in, Class<T> type) {
+        TypeAdapter<T> adapter = GSON.getAdapter(type);
+        JsonReader reader = open(in);
+        Iterator<T> it = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return reader.hasNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                try {
+                    return adapter.read(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> close(reader));
+    }
+
+    /**
+     * Counts the array's elements without binding any of them — each element is
+     * skipped token by token. Closes the input.
+     *
+     * @param in the response body; must contain a JSON array at the top level
+     * @return the number of elements
+     */
+    public static long count(InputStream in) {
+        JsonReader reader = open(in);
+        try {
+            long n = 0;
+            while (reader.hasNext()) {
+                reader.skipValue();
+                n++;
+            }
+            return n;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private static JsonReader open(InputStream in) {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array but found " + reader.peek());
+            }
+            reader.beginArray();
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            close(reader);
+            if (e instanceof IOException io) throw new UncheckedIOException(io);
+            throw (RuntimeException) e;
+        }
+    }
+
+    private static void close(JsonReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
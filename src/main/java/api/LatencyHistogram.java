@@ -0,0 +1,128 @@
+package api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of non-negative values (ApiClient records
+ * latencies in microseconds).
+ *
+ * Values below 32 get one bucket each; above that every power of two is split
+ * into 16 equal sub-buckets, so any recorded value is reported within ~6% of
+ * its true value while the whole range of a long fits in under 1,000 buckets.
+ * record() is a few atomic updates — no locks, no allocation — so it
+ * can sit on every request's path even with hundreds of threads recording.
+ *
+ * Percentiles are read from a snapshot() and report the upper bound of the
+ * bucket the percentile falls in (capped at the exact max), so they never
+ * understate latency.
+ *
+ * Example:
+ *   LatencyHistogram h = new LatencyHistogram();
+ *   h.record(1_250);                   // 1.25 ms in µs
+ *   h.snapshot().percentile(99.0);     // p99 in µs
+ */
+public final class LatencyHistogram {
+
+    /** Values below this get one bucket each. */
+    private static final int LINEAR = 32;
+
+    /** Sub-buckets per power of two above LINEAR. */
+    private static final int SUB_BUCKETS = 16;
+
+    /** log2(SUB_BUCKETS) */
+    private static final int SUB_BITS = 4;
+
+    /** log2(LINEAR) */
+    private static final int LINEAR_BITS = 5;
+
+    private static final int BUCKETS = LINEAR + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * @param value the value (e.g. latency in µs)
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        sum.add(v);
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+    }
+
+    /** @return a point-in-time copy of the counts, safe to read while recording continues */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int bucket(long v) {
+        if (v < LINEAR) return (int) v;
+        int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) - SUB_BUCKETS;
+        return LINEAR + (exp - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** @return the largest value that falls into the given bucket */
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exp = (bucket - LINEAR) / SUB_BUCKETS + LINEAR_BITS;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        // For the very last bucket this wraps from Long.MIN_VALUE to Long.MAX_VALUE, as intended.
+        return ((sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    /**
+     * Immutable view of a histogram at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /** @return number of recorded values */
+        public long count() { return count; }
+
+        /** @return largest recorded value, or 0 if empty */
+        public long max() { return max; }
+
+        /** @return arithmetic mean of recorded values, or 0 if empty */
+        public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+        /**
+         * Returns the value at the given percentile.
+         *
+         * @param percentile 0–100, e.g. 99.9
+         * @return the upper bound of the bucket holding that percentile, or 0 if empty
+         */
+        public long percentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import io.restassured.response.Response;
+
+/**
+ * Open-model load generator for ApiClient/UserApi calls.
+ *
+ * Requests are started at the times the LoadProfile dictates — each on its own
+ * virtual thread — whether or not earlier ones have finished. A slow server
+ * therefore sees the same offered load as a fast one (open model), instead of
+ * a fixed pool of users quietly backing off (closed model).
+ *
+ * Latency is measured from each request's intended start time, not from when
+ * it was actually sent. If the generator itself falls behind (GC pause,
+ * overloaded machine), the delay shows up in the results instead of being
+ * silently omitted — the coordinated-omission correction. Service time
+ * (actual send → response) is reported alongside for comparison.
+ *
+ * Calls are picked per arrival by weight, so a realistic mix of endpoints can
+ * run in one load test.
+ *
+ * Example:
+ *   UserApi api = new UserApi();
+ *   LoadGenerator.Report report = new LoadGenerator(LoadProfile.ramp(10, 100, Duration.ofSeconds(30)),
+ *                                                   Duration.ofMinutes(1))
+ *           .call("GET /users", 3, api::getUsers)
+ *           .call("GET /users/{id}", 1, () -> api.getUserById(1))
+ *           .run();
+ *   System.out.println(report.format());
+ */
+public class LoadGenerator {
+
+    /** Outstanding requests beyond which arrivals are dropped, so a dead server cannot exhaust memory. */
+    private static final int DEFAULT_MAX_OUTSTANDING = 10_000;
+
+    /** How long to wait before re-checking a profile that currently offers no load. */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final LoadProfile profile;
+    private final Duration duration;
+    private final List<Call> calls = new ArrayList<>();
+    private int totalWeight;
+    private int maxOutstanding = DEFAULT_MAX_OUTSTANDING;
+
+    /** One weighted entry in the request mix, with its own result counters. */
+    private static final class Call {
+        final String name;
+        final int weight;
+        final Supplier<Response> request;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+
+        Call(String name, int weight, Supplier<Response> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Results for one call in the mix. Latencies are in microseconds.
+     *
+     * @param name        the name given to call()
+     * @param requests    requests completed
+     * @param errors      requests that threw or returned 5xx
+     * @param latency     intended start → response (coordinated-omission corrected)
+     * @param serviceTime actual send → response
+     */
+    public record Result(String name, long requests, long errors,
+                         LatencyHistogram.Snapshot latency, LatencyHistogram.Snapshot serviceTime) { }
+
+    /**
+     * Results of a run.
+     *
+     * @param elapsed     wall time from the first arrival until every request finished
+     * @param offered     arrivals scheduled by the profile
+     * @param dropped     arrivals not sent because maxOutstanding requests were already open
+     * @param achievedRps requests sent per second of the scheduled duration
+     * @param results     one entry per call, in the order they were added
+     */
+    public record Report(Duration elapsed, long offered, long dropped, double achievedRps, List<Result> results) {
+
+        /** @return a plain-text table with percentiles in milliseconds */
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "Offered %d, dropped %d, %.1f req/s over %d ms%n",
+                    offered, dropped, achievedRps, elapsed.toMillis()));
+            sb.append(String.format(Locale.ROOT, "%-24s %8s %7s %9s %9s %9s %9s %9s  %s%n",
+                    "call", "requests", "errors", "p50", "p90", "p99", "p99.9", "max", "(service p99)"));
+            for (Result r : results) {
+                LatencyHistogram.Snapshot l = r.latency();
+                sb.append(String.format(Locale.ROOT, "%-24s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f  (%.1f)%n",
+                        r.name(), r.requests(), r.errors(), ms(l.percentile(50)), ms(l.percentile(90)),
+                        ms(l.percentile(99)), ms(l.percentile(99.9)), ms(l.max()),
+                        ms(r.serviceTime().percentile(99))));
+            }
+            return sb.toString();
+        }
+
+        private static double ms(long micros) { return micros / 1000.0; }
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param profile  target arrival rate over time
+     * @param duration how long to keep scheduling arrivals
+     */
+    public LoadGenerator(LoadProfile profile, Duration duration) {
+        this.profile = profile;
+        this.duration = duration;
+    }
+
+    /**
+     * Adds a call to the request mix.
+     *
+     * @param name    label in the report, e.g. "GET /users/{id}"
+     * @param weight  relative share of arrivals, >= 1
+     * @param request the call to make, e.g. api::getUsers (blocking is fine; each runs on a virtual thread)
+     * @return this generator
+     */
+    public LoadGenerator call(String name, int weight, Supplier<Response> request) {
+        if (weight < 1) throw new IllegalArgumentException("weight must be >= 1: " + weight);
+        calls.add(new Call(name, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    /**
+     * Caps concurrently open requests; further arrivals are counted as dropped.
+     *
+     * @param maxOutstanding the cap, >= 1
+     * @return this generator
+     */
+    public LoadGenerator maxOutstanding(int maxOutstanding) {
+        if (maxOutstanding < 1) throw new IllegalArgumentException("maxOutstanding must be >= 1: " + maxOutstanding);
+        this.maxOutstanding = maxOutstanding;
+        return this;
+    }
+
+    /**
+     * Runs the load test and waits for every started request to finish.
+     *
+     * @return the results
+     * @throws IllegalStateException if no call was added, or if interrupted
+     */
+    public Report run() {
+        if (calls.isEmpty()) throw new IllegalStateException("Add at least one call() before run()");
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+        long offered = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intended = start;
+            while (intended < end) {
+                double rate = profile.rateAt((intended - start) / 1e9);
+                if (rate <= 0) {
+                    intended += IDLE_NANOS;
+                    continue;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                if (Thread.interrupted()) throw new IllegalStateException("Load generation interrupted");
+
+                Call call = pick(offered++);
+                if (outstanding.incrementAndGet() > maxOutstanding) {
+                    outstanding.decrementAndGet();
+                    dropped.incrementAndGet();
+                } else {
+                    long scheduledAt = intended;
+                    threads.execute(() -> {
+                        try {
+                            invoke(call, scheduledAt);
+                        } finally {
+                            outstanding.decrementAndGet();
+                        }
+                    });
+                }
+                intended += (long) (1e9 / rate);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        List<Result> results = new ArrayList<>();
+        for (Call c : calls) {
+            LatencyHistogram.Snapshot latency = c.latency.snapshot();
+            results.add(new Result(c.name, latency.count(), c.errors.sum(), latency, c.serviceTime.snapshot()));
+        }
+        double sent = offered - dropped.get();
+        return new Report(Duration.ofNanos(elapsed), offered, dropped.get(), sent / (duration.toNanos() / 1e9), results);
+    }
+
+    /** Sends one request and records it against its intended start time. */
+    private static void invoke(Call call, long intendedNanos) {
+        long sentAt = System.nanoTime();
+        boolean error;
+        try {
+            error = call.request.get().statusCode() >= 500;
+        } catch (RuntimeException e) {
+            error = true;
+        }
+        long doneAt = System.nanoTime();
+        call.latency.record(TimeUnit.NANOSECONDS.toMicros(doneAt - intendedNanos));
+        call.serviceTime.record(TimeUnit.NANOSECONDS.toMicros(doneAt - sentAt));
+        if (error) call.errors.increment();
+    }
+
+    /** Deterministic weighted round-robin: arrival n gets the call whose weight band holds n mod totalWeight. */
+    private Call pick(long arrival) {
+        long slot = arrival % totalWeight;
+        for (Call c : calls) {
+            if (slot < c.weight) return c;
+            slot -= c.weight;
+        }
+        return calls.get(calls.size() - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package api;
+
+import java.time.Duration;
+
+/**
+ * Target arrival rate over the course of a LoadGenerator run.
+ *
+ * The rate is what the generator offers, not what it waits for: arrivals
+ * are scheduled from the profile alone, however slowly the server answers.
+ *
+ * Example:
+ *   LoadProfile.constant(50);                                   // 50 req/s throughout
+ *   LoadProfile.ramp(10, 200, Duration.ofMinutes(2));           // 10 → 200 req/s, then hold
+ *   LoadProfile.steps(20, 20, Duration.ofSeconds(30));          // 20, 40, 60 … req/s every 30 s
+ */
+@FunctionalInterface
+public interface LoadProfile {
+
+    /**
+     * @param elapsedSeconds time since the run started
+     * @return requests per second to offer at that moment; 0 or less pauses arrivals
+     */
+    double rateAt(double elapsedSeconds);
+
+    /**
+     * @param rps requests per second
+     * @return a profile that offers the same rate for the whole run
+     */
+    static LoadProfile constant(double rps) { return t -> rps; }
+
+    /**
+     * @param fromRps rate at the start
+     * @param toRps   rate reached at the end of the ramp and held afterwards
+     * @param over    length of the ramp
+     * @return a profile that changes the rate linearly
+     */
+    static LoadProfile ramp(double fromRps, double toRps, Duration over) {
+        double seconds = over.toNanos() / 1e9;
+        return t -> t >= seconds ? toRps : fromRps + (toRps - fromRps) * (t / seconds);
+    }
+
+    /**
+     * @param startRps   rate of the first step
+     * @param increment  added to the rate at each new step
+     * @param stepLength how long each step lasts
+     * @return a profile that raises the rate in steps, e.g. to find the knee of the latency curve
+     */
+    static LoadProfile steps(double startRps, double increment, Duration stepLength) {
+        double seconds = stepLength.toNanos() / 1e9;
+        return t -> startRps + increment * Math.floor(t / seconds);
+    }
+}
@@ -0,0 +1,177 @@
+package api;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.restassured.response.Response;
+
+/**
+ * Iterates a _page/_limit paginated list endpoint page by page, fetching the
+ * next pages while the caller works on the current one.
+ *
+ * Up to prefetch pages beyond the current one are requested at once through
+ * the client's async path, and each is bound to records as soon as it
+ * arrives. A full scan therefore takes about as long as the slowest pages,
+ * not the sum of all pages. Memory holds at most prefetch + 1 pages — the one
+ * being consumed and those in flight — whatever the size of the collection.
+ *
+ * The last page is the first one shorter than the page size, or the one that
+ * an X-Total-Count header marks as last. No pages past it are requested once
+ * it is known, and any already in flight are cancelled.
+ *
+ * Example:
+ *   try (Stream<User> users = api.streamUsersPaged(100)) {
+ *       Assert.assertTrue(users.allMatch(u -> u.email().contains("@")));
+ *   }
+ *
+ * Not thread-safe: consume it from one thread. Close it (or the stream) to
+ * cancel pages still in flight when stopping early.
+ */
+public final class PageIterator<T> implements Iterator<List<T>>, AutoCloseable {
+
+    /** A requested page and its bound elements, once they arrive. */
+    private record Page<T>(int number, CompletableFuture<Bound<T>> items) { }
+
+    /** A page's elements and the collection size, if the server sent X-Total-Count (else -1). */
+    private record Bound<T>(List<T> items, long total) { }
+
+    private final Function<String, CompletableFuture<Response>> fetch;
+    private final String endpoint;
+    private final Class<T> type;
+    private final int pageSize;
+    private final int prefetch;
+
+    private final Deque<Page<T>> inFlight = new ArrayDeque<>();
+    private int nextPage = 1;
+    private int lastPage = Integer.MAX_VALUE;
+    private List<T> ready;
+    private boolean done;
+
+    /**
+     * Creates an iterator; the first pages are requested on the first hasNext().
+     *
+     * @param fetch    sends an async GET for a path, e.g. ApiClient::getAsync
+     * @param endpoint the list endpoint, e.g. "/users"; may already carry a query string
+     * @param type     the element type
+     * @param pageSize the _limit of every page
+     * @param prefetch pages to request ahead of the one being consumed; 0 fetches one at a time
+     */
+    PageIterator(Function<String, CompletableFuture<Response>> fetch, String endpoint, Class<T> type,
+                 int pageSize, int prefetch) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be >= 1: " + pageSize);
+        if (prefetch < 0) throw new IllegalArgumentException("prefetch must be >= 0: " + prefetch);
+        this.fetch = fetch;
+        this.endpoint = endpoint;
+        this.type = type;
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Waits for the next page if it has not arrived yet.
+     *
+     * @return true unless the previous page was the last
+     * @throws IllegalStateException if a page request fails with a 4xx/5xx status
+     */
+    @Override
+    public boolean hasNext() {
+        if (ready != null) return true;
+        if (done) return false;
+        request();
+        Page<T> page = inFlight.poll();
+        if (page == null) return finish();
+        Bound<T> bound = join(page);
+        if (bound.total() >= 0) {
+            lastPage = Math.min(lastPage, (int) Math.max(1, Math.ceilDiv(bound.total(), pageSize)));
+        }
+        if (bound.items().size() < pageSize) lastPage = Math.min(lastPage, page.number());
+        while (!inFlight.isEmpty() && inFlight.peekLast().number() > lastPage) {
+            inFlight.pollLast().items().cancel(true);
+        }
+        if (bound.items().isEmpty()) return finish();
+        ready = bound.items();
+        request();
+        return true;
+    }
+
+    /** @return the next page's elements, in server order */
+    @Override
+    public List<T> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<T> page = ready;
+        ready = null;
+        return page;
+    }
+
+    /**
+     * Flattens the remaining pages into a stream of elements. Closing the
+     * stream closes this iterator.
+     *
+     * @return a sequential, lazily fetched stream
+     */
+    public Stream<T> stream() {
+        Spliterator<List<T>> pages = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(pages, false).flatMap(List::stream).onClose(this::close);
+    }
+
+    /** @return pages requested but not yet handed out */
+    public int pagesInFlight() { return inFlight.size(); }
+
+    /** Cancels pages still in flight; hasNext() returns false afterwards. */
+    @Override
+    public void close() {
+        done = true;
+        ready = null;
+        inFlight.forEach(p -> p.items().cancel(true));
+        inFlight.clear();
+    }
+
+    /**
+     * Tops up the pages in flight: prefetch of them while the caller holds a
+     * page, one more while it waits for one. Never past the known last page.
+     */
+    private void request() {
+        int window = ready == null ? prefetch + 1 : prefetch;
+        while (inFlight.size() < window && nextPage <= lastPage) {
+            int number = nextPage++;
+            String path = endpoint + (endpoint.contains("?") ? "&" : "?") + "_page=" + number + "&_limit=" + pageSize;
+            CompletableFuture<Response> call = fetch.apply(path);
+            inFlight.add(new Page<>(number, Futures.cancelling(call.thenApply(res -> bind(path, res)), call)));
+        }
+    }
+
+    private Bound<T> bind(String path, Response res) {
+        if (res.statusCode() >= 400) {
+            throw new IllegalStateException("GET " + path + " returned " + res.statusCode() + ": " + res.asString());
+        }
+        String total = res.header("X-Total-Count");
+        return new Bound<>(JsonBinding.list(res.asByteArray(), type), total == null ? -1 : Long.parseLong(total.trim()));
+    }
+
+    private Bound<T> join(Page<T> page) {
+        try {
+            return page.items().join();
+        } catch (CompletionException e) {
+            close();
+            throw e.getCause() instanceof RuntimeException r ? r : e;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private boolean finish() {
+        close();
+        return false;
+    }
+}
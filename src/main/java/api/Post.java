@@ -0,0 +1,11 @@
+package api;
+
+/**
+ * A post as returned by GET /users/{id}/posts.
+ *
+ * @param userId the author's user ID
+ * @param id     the post ID
+ * @param title  title
+ * @param body   text
+ */
+public record Post(int userId, int id, String title, String body) { }
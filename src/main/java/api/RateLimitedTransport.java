@@ -0,0 +1,77 @@
+package api;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.response.Response;
+
+/**
+ * HttpTransport decorator that paces requests through the shared RateLimits.
+ *
+ * Sync calls sleep on the calling thread until their permit is due. Async
+ * calls reserve a permit up front and start the exchange from a delayed
+ * executor when it is due, so throttled async requests hold no thread while
+ * they wait.
+ *
+ * Sits below RetryingTransport, so retries are paced too. Cancelling an async
+ * call while it waits for its permit means it is never sent.
+ */
+public class RateLimitedTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final String host;
+    private final RateLimits limits;
+
+    /**
+     * Wraps a transport.
+     *
+     * @param delegate the transport that performs the exchanges
+     * @param baseUrl  the delegate's base URL; its host[:port] selects the limiters
+     * @param limits   the registry to draw permits from (usually RateLimits.shared())
+     */
+    public RateLimitedTransport(HttpTransport delegate, String baseUrl, RateLimits limits) {
+        this.delegate = delegate;
+        this.host = URI.create(baseUrl).getAuthority();
+        this.limits = limits;
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        limits.acquire(host, request.method(), request.path());
+        return delegate.execute(request);
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        long wait = limits.reserve(host, request.method(), request.path());
+        if (wait == 0) return delegate.executeAsync(request, executor);
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor).execute(() -> {
+            if (result.isDone()) return;   // cancelled while waiting for its permit
+            CompletableFuture<Response> call = delegate.executeAsync(request, executor);
+            Futures.cancelling(result, call);
+            call.whenComplete((res, e) -> {
+                if (e == null) result.complete(res);
+                else result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            });
+        });
+        return result;
+    }
+
+    @Override
+    public InputStream stream(ApiRequest request) {
+        limits.acquire(host, request.method(), request.path());
+        return delegate.stream(request);
+    }
+
+    @Override
+    public Optional<ConnectionPoolStats> poolStats() { return delegate.poolStats(); }
+
+    @Override
+    public void close() { delegate.close(); }
+}
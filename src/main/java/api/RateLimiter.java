@@ -0,0 +1,93 @@
+package api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket: `permitsPerSecond` tokens accrue continuously up to `burst`,
+ * and each request spends one.
+ *
+ * Callers reserve a permit rather than poll for one. A reservation always
+ * succeeds and tells the caller how long to wait; when the bucket is empty
+ * the balance goes negative, so later callers queue behind earlier ones and
+ * requests leave at exactly the configured rate. That keeps traffic flat at
+ * the quota instead of bursting into 429s and backing off.
+ *
+ * Example:
+ *   RateLimiter limiter = new RateLimiter(20, 5);   // 20/s, bursts of up to 5
+ *   limiter.acquire();                              // blocks until a permit is due
+ *   long waitNanos = limiter.reserve();             // or: schedule the call yourself
+ */
+public final class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+
+    /** Available permits; negative when reservations are queued. Guarded by this. */
+    private double tokens;
+    private long lastNanos;
+
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong waitedNanos = new AtomicLong();
+
+    /**
+     * Creates a limiter that starts with a full bucket.
+     *
+     * @param permitsPerSecond sustained rate, > 0
+     * @param burst            most permits that can be taken at once after an idle period, >= 1
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) throw new IllegalArgumentException("permitsPerSecond must be > 0: " + permitsPerSecond);
+        if (burst < 1) throw new IllegalArgumentException("burst must be >= 1: " + burst);
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one permit, possibly ahead of time.
+     *
+     * @return nanoseconds the caller must wait before sending; 0 if a permit was free
+     */
+    public long reserve() {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastNanos) * permitsPerSecond / 1e9);
+            lastNanos = now;
+            tokens -= 1;
+            wait = tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+        }
+        if (wait > 0) {
+            throttled.incrementAndGet();
+            waitedNanos.addAndGet(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Takes one permit, sleeping until it is due.
+     *
+     * @throws IllegalStateException if interrupted while waiting (the interrupt flag is kept)
+     */
+    public void acquire() {
+        long wait = reserve();
+        if (wait == 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a rate limit permit", e);
+        }
+    }
+
+    /** @return the configured sustained rate */
+    public double permitsPerSecond() { return permitsPerSecond; }
+
+    /** @return how many reservations had to wait */
+    public long throttledCount() { return throttled.get(); }
+
+    /** @return total wait handed out to callers, in milliseconds */
+    public long totalWaitMillis() { return TimeUnit.NANOSECONDS.toMillis(waitedNanos.get()); }
+}
@@ -0,0 +1,166 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import config.TestConfig;
+
+/**
+ * Process-wide registry of RateLimiters, one per host and optionally one per
+ * endpoint on a host. Every ApiClient in the JVM draws from the same buckets,
+ * so ten test classes hitting the same staging host share its quota instead
+ * of each using all of it.
+ *
+ * A request must get a permit from its host's limiter and, if one exists,
+ * from its endpoint's limiter (method plus path template, as in ApiMetrics:
+ * GET /users/{id}).
+ *
+ * Defaults come from TestConfig:
+ * - apiRateLimit / apiRateBurst: a limiter for every host, created on first use
+ * - apiRateLimitEndpoints: endpoint limiters for every host, e.g.
+ *   "POST /users=5, GET /users/{id}=20:5" (permits per second[:burst])
+ *
+ * Limits can also be set in code; hosts are written as in the base URL's
+ * authority (host or host:port).
+ *
+ * Example:
+ *   RateLimits.shared().setHostLimit("staging.example.com", 50, 10);
+ *   RateLimits.shared().setEndpointLimit("staging.example.com", "POST", "/users", 5, 1);
+ */
+public final class RateLimits {
+
+    private static final RateLimits SHARED = new RateLimits(TestConfig.API_RATE_LIMIT, TestConfig.API_RATE_BURST,
+            parseEndpointRules(TestConfig.API_RATE_LIMIT_ENDPOINTS, TestConfig.API_RATE_BURST));
+
+    /** A configured endpoint limit, applied to each host on first use. */
+    record EndpointRule(String method, String endpoint, double permitsPerSecond, int burst) { }
+
+    private record EndpointKey(String host, String method, String endpoint) { }
+
+    private final double defaultHostRate;
+    private final int defaultBurst;
+    private final List<EndpointRule> endpointRules;
+
+    private final Map<String, Optional<RateLimiter>> hosts = new ConcurrentHashMap<>();
+    private final Map<EndpointKey, Optional<RateLimiter>> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry. Tests use this for isolation; clients use shared().
+     *
+     * @param defaultHostRate permits per second for hosts without an explicit limit; 0 for none
+     * @param defaultBurst    burst for the default host limit
+     * @param endpointRules   endpoint limits applied to every host
+     */
+    RateLimits(double defaultHostRate, int defaultBurst, List<EndpointRule> endpointRules) {
+        this.defaultHostRate = defaultHostRate;
+        this.defaultBurst = defaultBurst;
+        this.endpointRules = List.copyOf(endpointRules);
+    }
+
+    /** @return the registry shared by every ApiClient in the JVM */
+    public static RateLimits shared() { return SHARED; }
+
+    /**
+     * Sets (or replaces) the limit for every request to a host.
+     *
+     * @param host             host or host:port, as in the base URL
+     * @param permitsPerSecond sustained rate
+     * @param burst            largest burst after an idle period
+     */
+    public void setHostLimit(String host, double permitsPerSecond, int burst) {
+        hosts.put(host, Optional.of(new RateLimiter(permitsPerSecond, burst)));
+    }
+
+    /**
+     * Sets (or replaces) the limit for one endpoint on a host, on top of the host limit.
+     *
+     * @param host             host or host:port, as in the base URL
+     * @param method           HTTP method, e.g. POST
+     * @param endpoint         path template, e.g. /users/{id}
+     * @param permitsPerSecond sustained rate
+     * @param burst            largest burst after an idle period
+     */
+    public void setEndpointLimit(String host, String method, String endpoint, double permitsPerSecond, int burst) {
+        endpoints.put(new EndpointKey(host, method, endpoint), Optional.of(new RateLimiter(permitsPerSecond, burst)));
+    }
+
+    /**
+     * @param host host or host:port
+     * @return the host's limiter, if it has one
+     */
+    public Optional<RateLimiter> hostLimiter(String host) {
+        return hosts.computeIfAbsent(host, h -> defaultHostRate > 0
+                ? Optional.of(new RateLimiter(defaultHostRate, defaultBurst))
+                : Optional.empty());
+    }
+
+    /**
+     * Reserves a permit from the host limiter and the endpoint limiter (if any).
+     *
+     * @param host   host or host:port
+     * @param method HTTP method
+     * @param path   request path (normalized to its template here)
+     * @return nanoseconds to wait before sending; 0 if the request may go now
+     */
+    public long reserve(String host, String method, String path) {
+        long wait = hostLimiter(host).map(RateLimiter::reserve).orElse(0L);
+        if (endpointRules.isEmpty() && endpoints.isEmpty()) return wait;
+        EndpointKey key = new EndpointKey(host, method, ApiMetrics.template(path));
+        Optional<RateLimiter> endpoint = endpoints.computeIfAbsent(key, this::fromRules);
+        return endpoint.isPresent() ? Math.max(wait, endpoint.get().reserve()) : wait;
+    }
+
+    /**
+     * Reserves a permit and sleeps until it is due. Used by sync calls.
+     *
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    public void acquire(String host, String method, String path) {
+        long wait = reserve(host, method, path);
+        if (wait == 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a rate limit permit", e);
+        }
+    }
+
+    private Optional<RateLimiter> fromRules(EndpointKey key) {
+        for (EndpointRule rule : endpointRules) {
+            if (rule.method().equals(key.method()) && rule.endpoint().equals(key.endpoint())) {
+                return Optional.of(new RateLimiter(rule.permitsPerSecond(), rule.burst()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parses "POST /users=5, GET /users/{id}=20:5" into rules.
+     *
+     * @param spec         comma-separated "METHOD /template=rate[:burst]" entries; blank for none
+     * @param defaultBurst burst for entries that do not give one
+     * @return the rules
+     * @throws IllegalArgumentException if an entry is malformed
+     */
+    static List<EndpointRule> parseEndpointRules(String spec, int defaultBurst) {
+        List<EndpointRule> rules = new ArrayList<>();
+        if (spec == null || spec.isBlank()) return rules;
+        for (String entry : spec.split(",")) {
+            String[] target = entry.trim().split("=", 2);
+            String[] methodAndPath = target[0].trim().split("\\s+", 2);
+            if (target.length != 2 || methodAndPath.length != 2) {
+                throw new IllegalArgumentException("Bad apiRateLimitEndpoints entry '" + entry.trim()
+                        + "' (expected METHOD /path=rate[:burst])");
+            }
+            String[] rate = target[1].trim().split(":", 2);
+            rules.add(new EndpointRule(methodAndPath[0].toUpperCase(), methodAndPath[1],
+                    Double.parseDouble(rate[0]), rate.length == 2 ? Integer.parseInt(rate[1]) : defaultBurst));
+        }
+        return rules;
+    }
+}
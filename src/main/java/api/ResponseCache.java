@@ -0,0 +1,215 @@
+package api;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import config.TestConfig;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * Process-wide store of GET responses for CachingTransport.
+ *
+ * Reference-data endpoints (/users, /users/{id}) return the same body to every
+ * test class that asks. With -DapiCache=true the first GET is stored here and
+ * later identical GETs — from any client — are answered from memory while the
+ * entry is fresh (TestConfig.API_CACHE_TTL_MS). Once stale, an entry carrying
+ * an ETag or Last-Modified header is revalidated with a conditional GET; a 304
+ * keeps the stored body and only costs a round trip without payload.
+ *
+ * Bounded by total body bytes (TestConfig.API_CACHE_MAX_BYTES); the least
+ * recently used entries are evicted first.
+ *
+ * Entries are keyed by base URL, path and request headers, so responses for
+ * different users (different Authorization headers) are never mixed.
+ *
+ * Example:
+ *   ResponseCache.Stats s = ResponseCache.shared().stats();
+ *   s.hits();            // GETs answered without contacting the server
+ *   s.revalidations();   // stale entries confirmed by a 304
+ */
+public final class ResponseCache {
+
+    private static final ResponseCache SHARED =
+            new ResponseCache(TestConfig.API_CACHE_MAX_BYTES, TestConfig.API_CACHE_TTL_MS);
+
+    /** Cache key: the same path fetched with different headers is a different entry. */
+    record Key(String baseUrl, String path, Map<String, String> headers) { }
+
+    /**
+     * A stored response, kept as raw parts so each hit builds a fresh Response
+     * whose body can be read independently.
+     */
+    static final class Entry {
+        final int statusCode;
+        final String statusLine;
+        final Headers headers;
+        final String contentType;
+        final byte[] body;
+        final String etag;
+        final String lastModified;
+        volatile long validatedAtMillis;
+
+        private Entry(Response res, byte[] body) {
+            this.statusCode = res.statusCode();
+            this.statusLine = res.statusLine();
+            this.headers = res.headers();
+            this.contentType = res.contentType();
+            this.body = body;
+            this.etag = res.header("ETag");
+            this.lastModified = res.header("Last-Modified");
+            this.validatedAtMillis = System.currentTimeMillis();
+        }
+
+        /** @return whether a conditional GET can revalidate this entry */
+        boolean hasValidators() { return etag != null || lastModified != null; }
+
+        Response toResponse() {
+            return new ResponseBuilder()
+                    .setStatusCode(statusCode)
+                    .setStatusLine(statusLine)
+                    .setHeaders(headers)
+                    .setContentType(contentType == null ? "" : contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+
+    /**
+     * Counter snapshot.
+     *
+     * @param hits          GETs answered from a fresh entry without a request
+     * @param misses        GETs that downloaded a full response
+     * @param revalidations stale entries confirmed by a 304 Not Modified
+     * @param evictions     entries dropped to stay under the byte bound
+     * @param entries       entries currently stored
+     * @param bytes         body bytes currently stored
+     * @param bytesSaved    body bytes served from the cache instead of the network (hits + 304s)
+     */
+    public record Stats(long hits, long misses, long revalidations, long evictions,
+                        int entries, long bytes, long bytesSaved) { }
+
+    private final long maxBytes;
+    private final long ttlMillis;
+
+    /** Access-ordered, so iteration starts at the least recently used entry. Guarded by this. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Creates a cache. Tests use this to get an isolated instance; clients use shared().
+     *
+     * @param maxBytes  upper bound on stored body bytes
+     * @param ttlMillis how long an entry is served without revalidation
+     */
+    ResponseCache(long maxBytes, long ttlMillis) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** @return the JVM-wide cache used by every ApiClient when -DapiCache=true */
+    public static ResponseCache shared() { return SHARED; }
+
+    /** @return a snapshot of the counters and current size */
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), revalidations.get(), evictions.get(),
+                entries.size(), bytes, bytesSaved.get());
+    }
+
+    /** Drops every entry. Counters are kept. */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized Entry lookup(Key key) { return entries.get(key); }
+
+    boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.validatedAtMillis < ttlMillis;
+    }
+
+    /** Records a hit on a fresh entry and returns a Response built from it. */
+    Response hit(Entry entry) {
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(entry.body.length);
+        return entry.toResponse();
+    }
+
+    /** Records a 304 for a stale entry, restarts its TTL and returns a Response built from it. */
+    Response revalidated(Entry entry) {
+        revalidations.incrementAndGet();
+        bytesSaved.addAndGet(entry.body.length);
+        entry.validatedAtMillis = System.currentTimeMillis();
+        return entry.toResponse();
+    }
+
+    /**
+     * Records a full download and stores it if cacheable: a 200 without
+     * Cache-Control: no-store whose body fits in the byte bound.
+     *
+     * @return the response to hand to the caller (rebuilt if its body was read for storing)
+     */
+    Response store(Key key, Response res) {
+        misses.incrementAndGet();
+        String cacheControl = res.header("Cache-Control");
+        if (res.statusCode() != 200 || (cacheControl != null && cacheControl.contains("no-store"))) return res;
+        byte[] body = res.asByteArray();
+        if (body.length > maxBytes) return res;
+        Entry entry = new Entry(res, body);
+        synchronized (this) {
+            Entry replaced = entries.put(key, entry);
+            if (replaced != null) bytes -= replaced.body.length;
+            bytes += body.length;
+            Iterator<Entry> lru = entries.values().iterator();
+            while (bytes > maxBytes && lru.hasNext()) {
+                Entry oldest = lru.next();
+                if (oldest == entry) continue;
+                bytes -= oldest.body.length;
+                lru.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return entry.toResponse();
+    }
+
+    /**
+     * Drops every entry for the base URL under the written path's top-level
+     * collection, e.g. a PUT /users/7 invalidates /users, /users/7 and /users/7/posts.
+     *
+     * @param baseUrl the API root
+     * @param path    the path that was written to
+     */
+    synchronized void invalidate(String baseUrl, String path) {
+        String collection = collection(path);
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().baseUrl().equals(baseUrl) && collection.equals(collection(e.getKey().path()))) {
+                bytes -= e.getValue().body.length;
+                it.remove();
+            }
+        }
+    }
+
+    /** "/users/7/posts?x=1" → "/users" */
+    private static String collection(String path) {
+        int end = path.length();
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(0, end);
+    }
+}
@@ -0,0 +1,362 @@
+package api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.RequestWrapper;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+
+import config.TestConfig;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * HttpTransport backed by REST Assured — the framework's original HTTP stack.
+ *
+ * Each call merges a cached, immutable RequestSpecification template (base URI,
+ * JSON content type/accept and the Authorization header) into a fresh spec.
+ * Templates are built once with RequestSpecBuilder per Authorization value,
+ * i.e. once per token, and reused by every client sharing the transport.
+ *
+ * Connection pooling: by default REST Assured creates a new Apache HttpClient
+ * per request, so every call opens (and leaves in TIME_WAIT) a fresh socket.
+ * This transport instead owns one pooled client, sized and timed out from
+ * TestConfig (API_MAX_CONNECTIONS, API_MAX_CONNECTIONS_PER_ROUTE,
+ * API_CONNECT_TIMEOUT_MS, API_SOCKET_TIMEOUT_MS, API_KEEP_ALIVE_MS), and
+ * tells REST Assured to reuse it for every spec built from the template.
+ * Idle and expired connections are evicted in the background.
+ *
+ * Compression (TestConfig.API_COMPRESSION) uses REST Assured's GZIP/DEFLATE
+ * content decoders; large request bodies are gzipped here. Bytes on the wire
+ * are counted by a response interceptor beneath the decoders and recorded,
+ * with the decoded size, in TransferStats. Response sizes are only recorded
+ * with compression on: the decoded size needs the whole body in memory, and
+ * stream() must not read it.
+ *
+ * Blocking by design: executeAsync() occupies an executor thread for the whole
+ * exchange. It is still cancellable: cancelling the returned future (or letting
+ * its deadline pass) aborts the underlying Apache request, which closes the
+ * socket and frees the thread at once.
+ */
+@SuppressWarnings("deprecation") // REST Assured requires an AbstractHttpClient, i.e. the pre-4.3 Apache client API
+public class RestAssuredTransport implements HttpTransport {
+
+    /** Shared daemon thread that evicts idle connections for every transport in the JVM. */
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-connection-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Abort handle of the async call running on the current thread, picked up by the request interceptor. */
+    private static final ThreadLocal<AbortHandle> CURRENT_CALL = new ThreadLocal<>();
+
+    /** Wire-byte counter of the call running on the current thread, fed by the response interceptor. */
+    private static final ThreadLocal<long[]> RECEIVED = new ThreadLocal<>();
+
+    /** Distinct tokens kept before the template cache is emptied; more than a run ever uses in practice. */
+    private static final int MAX_TEMPLATES = 32;
+
+    private final String baseUrl;
+
+    /** Where request and response body sizes are recorded. */
+    private final TransferStats stats;
+
+    /** The connection pool behind the one Apache HttpClient this transport reuses. */
+    private final PoolingClientConnectionManager pool;
+
+    /** REST Assured config pointing every request at the pooled client. */
+    private final RestAssuredConfig config;
+
+    /** Periodic idle/expired connection eviction for this transport's pool. */
+    private final ScheduledFuture<?> eviction;
+
+    /** The template for requests without an Authorization header. */
+    private final RequestSpecification anonymous;
+
+    /**
+     * One template per Authorization value. The transport is shared by every
+     * client of its base URL (see ClientRegistry), so clients logged in as
+     * different users must not evict each other's template on every call.
+     */
+    private final Map<String, RequestSpecification> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a transport for the given base URL.
+     *
+     * @param baseUrl the API root every request path is appended to
+     */
+    public RestAssuredTransport(String baseUrl) { this(baseUrl, TransferStats.shared()); }
+
+    /**
+     * Creates a transport that counts body sizes into the given stats instead
+     * of the JVM-wide ones, so a test can assert on them in isolation.
+     *
+     * @param baseUrl the API root every request path is appended to
+     * @param stats   where request and response body sizes are recorded
+     */
+    RestAssuredTransport(String baseUrl, TransferStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.pool = new PoolingClientConnectionManager();
+        pool.setMaxTotal(TestConfig.API_MAX_CONNECTIONS);
+        pool.setDefaultMaxPerRoute(TestConfig.API_MAX_CONNECTIONS_PER_ROUTE);
+
+        DefaultHttpClient client = new DefaultHttpClient(pool);
+        client.getParams()
+                .setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, TestConfig.API_CONNECT_TIMEOUT_MS)
+                .setIntParameter(CoreConnectionPNames.SO_TIMEOUT, TestConfig.API_SOCKET_TIMEOUT_MS);
+        client.setKeepAliveStrategy((response, context) -> {
+            long server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return server > 0 ? Math.min(server, TestConfig.API_KEEP_ALIVE_MS) : TestConfig.API_KEEP_ALIVE_MS;
+        });
+        client.addRequestInterceptor((request, context) -> {
+            AbortHandle call = CURRENT_CALL.get();
+            if (call != null) call.attach(request);
+        });
+        // Added before REST Assured's own decoding interceptors, so it counts the still-compressed bytes.
+        client.addResponseInterceptor((response, context) -> {
+            long[] received = RECEIVED.get();
+            if (received != null && response.getEntity() != null)
+                response.setEntity(new CountingEntity(response.getEntity(), received));
+        });
+
+        RestAssuredConfig config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> client)
+                .reuseHttpClientInstance()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, TestConfig.API_CONNECT_TIMEOUT_MS)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, TestConfig.API_SOCKET_TIMEOUT_MS));
+        if (Compression.enabled()) {
+            config = config.decoderConfig(DecoderConfig.decoderConfig()
+                    .contentDecoders(DecoderConfig.ContentDecoder.GZIP, DecoderConfig.ContentDecoder.DEFLATE));
+        }
+        this.config = config;
+
+        long evictEvery = Math.max(1_000, TestConfig.API_KEEP_ALIVE_MS / 2);
+        this.eviction = EVICTOR.scheduleWithFixedDelay(() -> {
+            pool.closeExpiredConnections();
+            pool.closeIdleConnections(TestConfig.API_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS);
+        }, evictEvery, evictEvery, TimeUnit.MILLISECONDS);
+
+        this.anonymous = buildTemplate(null);
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        long[] received = new long[1];
+        Response res = send(request, received);
+        if (Compression.enabled()) stats.recordResponse(res.asByteArray().length, received[0]);
+        return res;
+    }
+
+    /**
+     * Returns the unread body. Streamed bodies are not counted in
+     * TransferStats, so nothing here reads the body before the caller does.
+     */
+    @Override
+    public InputStream stream(ApiRequest request) {
+        Response res = send(request, new long[1]);
+        if (res.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.path()
+                    + " returned " + res.statusCode() + ": " + res.asString());
+        }
+        return res.asInputStream();
+    }
+
+    /**
+     * Runs execute() on the executor. Completing the returned future
+     * exceptionally — cancel(), a deadline, a failed batch — aborts the Apache
+     * request mid-flight and interrupts the thread.
+     */
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        AbortHandle call = new AbortHandle();
+        return Futures.supplyInterruptibly(() -> {
+            CURRENT_CALL.set(call);
+            try {
+                return execute(request);
+            } finally {
+                CURRENT_CALL.remove();
+            }
+        }, executor, call::abort);
+    }
+
+    @Override
+    public Optional<ConnectionPoolStats> poolStats() {
+        PoolStats stats = pool.getTotalStats();
+        return Optional.of(new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(),
+                stats.getPending(), stats.getMax()));
+    }
+
+    /** Stops idle eviction and closes every pooled connection. */
+    @Override
+    public void close() {
+        eviction.cancel(false);
+        pool.shutdown();
+    }
+
+    /**
+     * Sends the request; the response interceptor adds the wire bytes it
+     * reads, now or later, to received[0].
+     */
+    private Response send(ApiRequest request, long[] received) {
+        RequestSpecification spec = spec(request.headers());
+        if (request.body() != null) body(spec, request);
+        RECEIVED.set(received);
+        try {
+            return spec.request(request.method(), request.path());
+        } finally {
+            RECEIVED.remove();
+        }
+    }
+
+    /**
+     * Returns a fresh request specification seeded from the cached template,
+     * with any non-Authorization headers added on top.
+     *
+     * Package-private so RequestSpecBenchmark can measure it directly.
+     *
+     * @param headers the request's headers
+     * @return a configured request specification ready to send
+     */
+    RequestSpecification spec(Map<String, String> headers) {
+        String authorization = headers.get("Authorization");
+        RequestSpecification template = authorization == null ? anonymous : templates.get(authorization);
+        if (template == null) {
+            if (templates.size() >= MAX_TEMPLATES) templates.clear();
+            template = templates.computeIfAbsent(authorization, this::buildTemplate);
+        }
+        RequestSpecification spec = RestAssured.given().spec(template);
+        if (headers.size() > (authorization == null ? 0 : 1)) {
+            headers.forEach((name, value) -> {
+                if (!"Authorization".equals(name)) spec.header(name, value);
+            });
+        }
+        return spec;
+    }
+
+    /**
+     * Sets the request body. Pre-serialized bodies (String, byte[], ByteBuffer)
+     * are sent as they are. With compression on, Map/POJO bodies are serialized
+     * here (as JdkHttpTransport does) so they can be gzipped and counted;
+     * otherwise they are left to REST Assured's serializer.
+     */
+    private void body(RequestSpecification spec, ApiRequest request) {
+        Object body = request.body();
+        boolean serialized = body instanceof String || body instanceof byte[] || body instanceof ByteBuffer;
+        if (!Compression.enabled() && !serialized) {
+            spec.body(body);
+            return;
+        }
+        byte[] bytes = Compression.toBytes(body);
+        boolean gzip = Compression.shouldGzip(bytes, request.headers());
+        byte[] wire = gzip ? Compression.gzip(bytes) : bytes;
+        if (gzip) spec.header("Content-Encoding", "gzip");
+        stats.recordRequest(bytes.length, wire.length);
+        spec.body(body instanceof String && !gzip ? body : wire);
+    }
+
+    /**
+     * Builds the immutable request template.
+     *
+     * Every request gets:
+     * - the pooled HttpClient and its timeouts (via the shared RestAssuredConfig)
+     * - baseUri — the transport's base URL
+     * - Content-Type: application/json — all requests send JSON
+     * - Accept: application/json — all requests expect JSON responses
+     * - Authorization — only if the client has a token
+     *
+     * @param authorization the Authorization header value, or null
+     * @return a request specification to be merged into each call via spec()
+     */
+    private RequestSpecification buildTemplate(String authorization) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setConfig(config)
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON);
+        if (authorization != null) builder.addHeader("Authorization", authorization);
+        return builder.build();
+    }
+
+    /** Counts the bytes read from a response entity as they arrive, before any decoding. */
+    private static final class CountingEntity extends HttpEntityWrapper {
+
+        private final long[] received;
+
+        CountingEntity(HttpEntity entity, long[] received) {
+            super(entity);
+            this.received = received;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) received[0]++;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buf, int off, int len) throws IOException {
+                    int n = super.read(buf, off, len);
+                    if (n > 0) received[0] += n;
+                    return n;
+                }
+            };
+        }
+    }
+
+    /**
+     * Links one async call to the Apache request REST Assured sends for it, so
+     * the call can be aborted from another thread.
+     */
+    private static final class AbortHandle {
+
+        private HttpUriRequest request;   // guarded by this
+        private boolean aborted;          // guarded by this
+
+        /** Called by the request interceptor on the sending thread. */
+        synchronized void attach(HttpRequest sent) throws IOException {
+            if (aborted) throw new IOException("Request aborted before it was sent");
+            HttpRequest original = sent instanceof RequestWrapper wrapper ? wrapper.getOriginal() : sent;
+            if (original instanceof HttpUriRequest uriRequest) request = uriRequest;
+        }
+
+        void abort() {
+            HttpUriRequest current;
+            synchronized (this) {
+                aborted = true;
+                current = request;
+            }
+            if (current != null) current.abort();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package api;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import config.TestConfig;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * When and how long to wait before retrying a failed request.
+ *
+ * A request is retried only if it is safe to repeat:
+ * - GET, HEAD, OPTIONS, PUT and DELETE always
+ * - POST and PATCH only when they carry an Idempotency-Key header
+ *   (see ApiRequest.withIdempotencyKey())
+ *
+ * and only for transient failures: 429, 502, 503, 504, or an I/O error such
+ * as a connection reset.
+ *
+ * Delays use exponential backoff with full jitter — a random wait between 0
+ * and min(maxDelay, baseDelay * 2^attempt) — so clients that failed together
+ * do not retry together. A Retry-After header (seconds or HTTP date) replaces
+ * the backoff; if it asks for more than maxDelay the response is returned as is.
+ *
+ * Every retry also spends a token from the process-wide Budget, so when the
+ * server is overloaded retries cannot multiply the load it sees.
+ *
+ * Example:
+ *   RetryPolicy policy = RetryPolicy.fromConfig();
+ *   policy.canRetry(ApiRequest.post("/users", body).withIdempotencyKey("k-1"));  // true
+ */
+public final class RetryPolicy {
+
+    /** Header that marks a POST/PATCH as safe to retry. */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Budget budget;
+
+    /**
+     * Creates a policy.
+     *
+     * @param maxRetries      retries after the first attempt; 0 disables retrying
+     * @param baseDelayMillis backoff for the first retry, doubled for each further one
+     * @param maxDelayMillis  cap on any single wait, including Retry-After
+     * @param budget          tokens that every retry must spend
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, Budget budget) {
+        if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must be >= 0: " + maxRetries);
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.budget = budget;
+    }
+
+    /** @return the policy configured by TestConfig.API_RETRIES and friends, using Budget.shared() */
+    public static RetryPolicy fromConfig() {
+        return new RetryPolicy(TestConfig.API_RETRIES, TestConfig.API_RETRY_BASE_DELAY_MS,
+                TestConfig.API_RETRY_MAX_DELAY_MS, Budget.shared());
+    }
+
+    /** @return retries after the first attempt */
+    public int maxRetries() { return maxRetries; }
+
+    /** @return the budget retries are charged to */
+    public Budget budget() { return budget; }
+
+    /**
+     * @param request the request
+     * @return whether the request may be sent more than once
+     */
+    public boolean canRetry(ApiRequest request) {
+        if (maxRetries == 0) return false;
+        if (IDEMPOTENT_METHODS.contains(request.method())) return true;
+        return request.headers().containsKey(IDEMPOTENCY_KEY);
+    }
+
+    /**
+     * Decides whether to retry after a response or an error.
+     *
+     * @param attempt  retries already made for this request (0 after the first attempt)
+     * @param response the response, or null if the attempt threw
+     * @param error    the exception, or null if a response arrived
+     * @return how long to wait before the next attempt, or null to stop here
+     */
+    public Duration nextDelay(int attempt, Response response, Throwable error) {
+        if (attempt >= maxRetries) return null;
+        long delay;
+        if (response != null) {
+            if (!RETRYABLE_STATUSES.contains(response.statusCode())) return null;
+            Headers headers = response.headers();   // null on a response built without any
+            long retryAfter = retryAfterMillis(headers == null ? null : headers.getValue("Retry-After"));
+            if (retryAfter > maxDelayMillis) return null;
+            delay = retryAfter >= 0 ? retryAfter : backoff(attempt);
+        } else {
+            if (!isTransient(error)) return null;
+            delay = backoff(attempt);
+        }
+        return budget.tryWithdraw() ? Duration.ofMillis(delay) : null;
+    }
+
+    /** Full jitter: uniform in [0, min(max, base * 2^attempt)]. */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /** I/O failures (connection reset, refused, timed out) anywhere in the cause chain. */
+    private static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses Retry-After as delta-seconds or an HTTP date.
+     *
+     * @return the wait in milliseconds, or -1 if absent or unparseable
+     */
+    static long retryAfterMillis(String value) {
+        if (value == null || value.isBlank()) return -1;
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Process-wide retry budget: retries may add at most a fixed fraction on top
+     * of normal traffic.
+     *
+     * Every first attempt deposits `ratio` of a token; every retry withdraws a
+     * whole one. On top of that, `minPerSecond` tokens accrue each second, so a
+     * quiet suite can still retry an occasional failure. The balance is capped
+     * at ten seconds' worth of the floor (at least 10 tokens), which bounds a
+     * retry burst after a long healthy stretch.
+     *
+     * Example: with ratio 0.1, a suite that sends 1,000 requests can retry
+     * about 100 of them — not 1,000 × apiRetries when the server is down.
+     */
+    public static final class Budget {
+
+        private static final Budget SHARED =
+                new Budget(TestConfig.API_RETRY_BUDGET_RATIO, TestConfig.API_RETRY_BUDGET_MIN_PER_SEC);
+
+        /** Milli-tokens, so fractional deposits need no floating point. */
+        private static final long TOKEN = 1000;
+
+        private final long depositPerRequest;
+        private final long refillPerSecond;
+        private final long capacity;
+        private final AtomicLong balance;
+        private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        /**
+         * Creates a budget that starts full.
+         *
+         * @param ratio        tokens deposited per first attempt, e.g. 0.1
+         * @param minPerSecond tokens that accrue per second regardless of traffic
+         */
+        public Budget(double ratio, int minPerSecond) {
+            this.depositPerRequest = Math.round(ratio * TOKEN);
+            this.refillPerSecond = (long) minPerSecond * TOKEN;
+            this.capacity = Math.max(10 * TOKEN, 10 * refillPerSecond);
+            this.balance = new AtomicLong(capacity);
+        }
+
+        /** @return the budget shared by every ApiClient in the JVM */
+        public static Budget shared() { return SHARED; }
+
+        /** Credits one first attempt. */
+        public void deposit() { add(depositPerRequest); }
+
+        /**
+         * Spends one token if available.
+         *
+         * @return whether a retry may go ahead
+         */
+        public boolean tryWithdraw() {
+            refill();
+            while (true) {
+                long current = balance.get();
+                if (current < TOKEN) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                if (balance.compareAndSet(current, current - TOKEN)) {
+                    retries.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+
+        /** @return retries granted so far */
+        public long retries() { return retries.get(); }
+
+        /** @return retries refused because the budget was empty */
+        public long rejected() { return rejected.get(); }
+
+        private void refill() {
+            if (refillPerSecond == 0) return;
+            long now = System.nanoTime();
+            long last = lastRefillNanos.get();
+            // Anything beyond ten seconds would overflow the capacity anyway.
+            long elapsed = Math.min(now - last, 10_000_000_000L);
+            long earned = elapsed * refillPerSecond / 1_000_000_000L;
+            if (earned > 0 && lastRefillNanos.compareAndSet(last, now)) add(earned);
+        }
+
+        private void add(long milliTokens) {
+            balance.accumulateAndGet(milliTokens, (b, d) -> Math.min(capacity, b + d));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package api;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.restassured.response.Response;
+
+/**
+ * HttpTransport decorator that retries transient failures according to a
+ * RetryPolicy.
+ *
+ * Sync calls sleep between attempts on the calling thread. Async calls
+ * schedule the next attempt with a delayed executor, so no thread is held
+ * while waiting out the backoff. Cancelling an async call cancels the attempt
+ * in flight and stops further ones.
+ *
+ * When the policy gives up, the caller sees the last response or exception,
+ * exactly as if there had been no retry layer. Streams (stream()) are not retried.
+ */
+public class RetryingTransport implements HttpTransport {
+
+    private final HttpTransport delegate;
+    private final RetryPolicy policy;
+
+    /**
+     * Wraps a transport.
+     *
+     * @param delegate the transport that performs each attempt
+     * @param policy   decides which failures to retry and how long to wait
+     */
+    public RetryingTransport(HttpTransport delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public Response execute(ApiRequest request) {
+        policy.budget().deposit();
+        if (!policy.canRetry(request)) return delegate.execute(request);
+        for (int attempt = 0; ; attempt++) {
+            Response res;
+            try {
+                res = delegate.execute(request);
+            } catch (Exception e) {   // REST Assured rethrows checked I/O errors undeclared
+                Duration delay = policy.nextDelay(attempt, null, e);
+                if (delay == null) throw e;
+                sleep(delay, e);
+                continue;
+            }
+            Duration delay = policy.nextDelay(attempt, res, null);
+            if (delay == null) return res;
+            sleep(delay, null);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(ApiRequest request, Executor executor) {
+        policy.budget().deposit();
+        if (!policy.canRetry(request)) return delegate.executeAsync(request, executor);
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<Response>> current = new AtomicReference<>();
+        result.whenComplete((res, e) -> {
+            CompletableFuture<Response> running = current.get();
+            if (e != null && running != null) running.cancel(true);
+        });
+        attempt(request, executor, 0, result, current);
+        return result;
+    }
+
+    /** Runs one async attempt and either completes the result or schedules the next attempt. */
+    private void attempt(ApiRequest request, Executor executor, int attempt, CompletableFuture<Response> result,
+                         AtomicReference<CompletableFuture<Response>> current) {
+        if (result.isDone()) return;   // cancelled by the caller between attempts
+        CompletableFuture<Response> call;
+        try {
+            call = delegate.executeAsync(request, executor);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        current.set(call);
+        if (result.isDone()) call.cancel(true);   // cancelled while this attempt was being started
+        call.whenComplete((res, e) -> {
+            if (result.isDone()) return;   // cancelled or timed out: no retry token, no follow-up attempt
+            try {
+                Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                Duration delay = policy.nextDelay(attempt, res, error);
+                if (delay == null) {
+                    if (error != null) result.completeExceptionally(error);
+                    else result.complete(res);
+                    return;
+                }
+                Executor later = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor);
+                later.execute(() -> attempt(request, executor, attempt + 1, result, current));
+            } catch (Throwable t) {   // a policy or executor failure must not leave the caller waiting forever
+                result.completeExceptionally(t);
+            }
+        });
+    }
+
+    @Override
+    public InputStream stream(ApiRequest request) { return delegate.stream(request); }
+
+    @Override
+    public Optional<ConnectionPoolStats> poolStats() { return delegate.poolStats(); }
+
+    @Override
+    public void close() { delegate.close(); }
+
+    private static void sleep(Duration delay, Exception failure) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException interrupted = new IllegalStateException("Interrupted while waiting to retry", e);
+            if (failure != null) interrupted.addSuppressed(failure);
+            throw interrupted;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import config.TestConfig;
+import io.restassured.response.Response;
+
+/**
+ * Process-wide registry of compiled JSON schemas.
+ *
+ * Each schema is read from the classpath (TestConfig.API_SCHEMA_DIR, i.e.
+ * src/test/resources/schemas) and compiled the first time it is used, then
+ * kept in memory. Compiled schemas are immutable and thread-safe, so every
+ * test and thread validates against the same instance — unlike
+ * matchesJsonSchemaInClasspath(), which loads and compiles the schema on
+ * every assertion.
+ *
+ * validateEach() checks every element of a JSON array against an item
+ * schema, spreading the elements over all cores, and reports failures by
+ * index.
+ *
+ * Example:
+ *   SchemaRegistry.shared().assertValid("user", api.getUserById(1));
+ *   SchemaRegistry.BulkResult result = SchemaRegistry.shared().validateEach("user", api.getUsers());
+ *   Assert.assertTrue(result.valid(), result.format());
+ */
+public final class SchemaRegistry {
+
+    /** Arrays shorter than this are validated on the calling thread; forking would cost more than it saves. */
+    static final int PARALLEL_THRESHOLD = 64;
+
+    private static final SchemaRegistry SHARED = new SchemaRegistry(TestConfig.API_SCHEMA_DIR);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String root;
+    private final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private final Map<String, JsonSchema> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Outcome of validating one JSON document.
+     *
+     * @param valid  true if the document matches the schema
+     * @param errors one line per violation, e.g. "/email: object has missing required properties"
+     */
+    public record Result(boolean valid, List<String> errors) { }
+
+    /**
+     * An array element that failed validation.
+     *
+     * @param index  the element's position in the array
+     * @param errors one line per violation
+     */
+    public record Failure(int index, List<String> errors) { }
+
+    /**
+     * Outcome of validating every element of an array.
+     *
+     * @param validated elements checked
+     * @param failures  failing elements in index order; empty if all passed
+     */
+    public record BulkResult(int validated, List<Failure> failures) {
+
+        /** @return true if every element matched */
+        public boolean valid() { return failures.isEmpty(); }
+
+        /** @return a summary with up to ten failing elements, for assertion messages */
+        public String format() {
+            StringBuilder sb = new StringBuilder()
+                    .append(failures.size()).append(" of ").append(validated).append(" elements invalid");
+            failures.stream().limit(10).forEach(f -> sb.append("\n  [").append(f.index()).append("] ")
+                    .append(String.join("; ", f.errors())));
+            return sb.toString();
+        }
+    }
+
+    /** @return the registry every ApiClient and test in the JVM shares */
+    public static SchemaRegistry shared() { return SHARED; }
+
+    /**
+     * Creates a registry reading schemas from a classpath directory.
+     * Package-private so tests can use their own; everything else uses shared().
+     *
+     * @param root classpath directory, e.g. "schemas"
+     */
+    SchemaRegistry(String root) {
+        this.root = root.replaceAll("^/+|/+$", "");
+    }
+
+    /**
+     * Returns a compiled schema, loading and compiling it on first use.
+     *
+     * @param name schema file name under the root, with or without ".json" (e.g. "user")
+     * @return the compiled schema
+     * @throws IllegalArgumentException if there is no such schema on the classpath
+     * @throws IllegalStateException    if the file is not a valid schema
+     */
+    public JsonSchema schema(String name) { return compiled.computeIfAbsent(name, this::compile); }
+
+    /**
+     * Validates a response body.
+     *
+     * @param name schema name
+     * @param res  the response
+     * @return the result
+     */
+    public Result validate(String name, Response res) { return validate(name, parse(res)); }
+
+    /**
+     * Validates a parsed JSON document.
+     *
+     * @param name     schema name
+     * @param document the document
+     * @return the result
+     */
+    public Result validate(String name, JsonNode document) {
+        List<String> errors = errors(schema(name).validateUnchecked(document));
+        return new Result(errors.isEmpty(), errors);
+    }
+
+    /**
+     * Validates a response body and fails the test if it does not match.
+     *
+     * @param name schema name
+     * @param res  the response
+     * @throws AssertionError listing every violation
+     */
+    public void assertValid(String name, Response res) {
+        Result result = validate(name, res);
+        if (!result.valid()) {
+            throw new AssertionError("Response does not match schema '" + name + "':\n  "
+                    + String.join("\n  ", result.errors()));
+        }
+    }
+
+    /**
+     * Validates every element of a JSON array response against an item schema.
+     * The body is parsed once; large arrays are validated in parallel.
+     *
+     * @param name item schema name (e.g. "user" for GET /users)
+     * @param res  a response whose body is a JSON array
+     * @return how many elements were checked and which failed
+     * @throws IllegalArgumentException if the body is not a JSON array
+     */
+    public BulkResult validateEach(String name, Response res) {
+        JsonNode array = parse(res);
+        if (!array.isArray()) throw new IllegalArgumentException("Expected a JSON array but found " + array.getNodeType());
+        JsonSchema schema = schema(name);
+        IntStream indexes = IntStream.range(0, array.size());
+        if (array.size() >= PARALLEL_THRESHOLD) indexes = indexes.parallel();
+        List<Failure> failures = indexes
+                .mapToObj(i -> {
+                    List<String> errors = errors(schema.validateUnchecked(array.get(i)));
+                    return errors.isEmpty() ? null : new Failure(i, errors);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        return new BulkResult(array.size(), failures);
+    }
+
+    /** @return how many schemas have been compiled so far */
+    public int size() { return compiled.size(); }
+
+    /** Forgets every compiled schema, e.g. after editing schema files in a long-running session. */
+    public void clear() { compiled.clear(); }
+
+    private JsonSchema compile(String name) {
+        String path = root + "/" + (name.endsWith(".json") ? name : name + ".json");
+        try (InputStream in = SchemaRegistry.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) throw new IllegalArgumentException("No JSON schema on the classpath at " + path);
+            return factory.getJsonSchema(MAPPER.readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JSON schema " + path, e);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Invalid JSON schema " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonNode parse(Response res) {
+        try {
+            return MAPPER.readTree(res.asByteArray());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Response body is not JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> errors(ProcessingReport report) {
+        if (report.isSuccess()) return List.of();
+        List<String> errors = new ArrayList<>();
+        for (ProcessingMessage m : report) {
+            if (m.getLogLevel().compareTo(LogLevel.ERROR) < 0) continue;   // e.g. "unknown keyword" warnings
+            String pointer = m.asJson().path("instance").path("pointer").asText("");
+            errors.add((pointer.isEmpty() ? "/" : pointer) + ": " + m.getMessage());
+        }
+        return errors;
+    }
+}
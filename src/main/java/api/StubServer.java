@@ -0,0 +1,450 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import config.TestConfig;
+
+/**
+ * In-process stand-in for the jsonplaceholder user endpoints, on the JDK
+ * HttpServer with one virtual thread per request.
+ *
+ * Serves from memory, with every response body serialized once up front:
+ * - GET /users, GET /users/{id}, GET /users/{id}/posts — 10 users (or as many
+ *   as start(port, users) asks for), 10 posts each
+ * - list endpoints paginate like json-server: _page and _limit (default 10),
+ *   or _start with _end or _limit; paginated responses carry X-Total-Count
+ * - POST /users, PUT/PATCH/DELETE /users/{id} — answered like jsonplaceholder
+ *   (the new or updated user is echoed back, nothing is stored)
+ * - POST /auth/login — a JWT with an "exp" claim one hour ahead
+ *
+ * Starts in a few milliseconds on a free port, so API tests and benchmarks
+ * run hermetically and at loopback speed. With -DapiStub=true every ApiClient
+ * created without a base URL talks to shared() instead of TestConfig.API_BASE_URL.
+ *
+ * Fault injection, adjustable while running:
+ * - setLatency(min, max): each request waits a uniform random time in [min, max]
+ * - setErrorRate(rate): that fraction of requests fails with 503 and Retry-After: 0
+ * - failNext(n, status): the next n requests fail with the given status
+ *
+ * Like a real server, it honours "Accept-Encoding: gzip" for large bodies and
+ * accepts gzipped request bodies.
+ *
+ * Example:
+ *   try (StubServer stub = StubServer.start(); UserApi api = new UserApi(stub.baseUrl())) {
+ *       stub.failNext(1, 503);
+ *       api.getUsers();   // 503
+ *   }
+ */
+public final class StubServer implements AutoCloseable {
+
+    /** Users served by default; ids 1..USERS. */
+    public static final int USERS = 10;
+
+    /** Posts per user; post ids run on across users like jsonplaceholder's. */
+    public static final int POSTS_PER_USER = 10;
+
+    private static final Pattern USER_PATH = Pattern.compile("/users/(\\d+)");
+    private static final Pattern POSTS_PATH = Pattern.compile("/users/(\\d+)/posts");
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final Gson GSON = new Gson();
+
+    /** Name, username, email and city of each user, from jsonplaceholder. */
+    private static final String[][] PEOPLE = {
+        {"Leanne Graham", "Bret", "Sincere@april.biz", "Gwenborough"},
+        {"Ervin Howell", "Antonette", "Shanna@melissa.tv", "Wisokyburgh"},
+        {"Clementine Bauch", "Samantha", "Nathan@yesenia.net", "McKenziehaven"},
+        {"Patricia Lebsack", "Karianne", "Julianne.OConner@kory.org", "South Elvis"},
+        {"Chelsey Dietrich", "Kamren", "Lucio_Hettinger@annie.ca", "Roscoeview"},
+        {"Mrs. Dennis Schulist", "Leopoldo_Corkery", "Karley_Dach@jasper.info", "South Christy"},
+        {"Kurtis Weissnat", "Elwyn.Skiles", "Telly.Hoeger@billy.biz", "Howemouth"},
+        {"Nicholas Runolfsdottir V", "Maxime_Nienow", "Sherwood@rosamond.me", "Aliyaview"},
+        {"Glenna Reichert", "Delphine", "Chaim_McDermott@dana.io", "Bartholomebury"},
+        {"Clementina DuBuque", "Moriah.Stanton", "Rey.Padberg@karina.biz", "Lebsackbury"},
+    };
+
+    private static StubServer shared;   // guarded by StubServer.class
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String baseUrl;
+
+    private final int userCount;
+    private final byte[][] userJson;       // by user id
+    private final byte[][][] postJson;     // by user id, then post index
+    private final byte[] usersJson;
+    private final byte[][] postsJson;      // whole array, by user id
+
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double errorRate;
+    private final AtomicInteger failNext = new AtomicInteger();
+    private volatile int failStatus = 503;
+    private final AtomicLong requests = new AtomicLong();
+
+    private StubServer(int port, int users) throws IOException {
+        userCount = users;
+        userJson = new byte[users + 1][];
+        postJson = new byte[users + 1][POSTS_PER_USER][];
+        postsJson = new byte[users + 1][];
+        for (int id = 1; id <= users; id++) {
+            User user = user(id);
+            userJson[id] = GSON.toJson(user).getBytes(StandardCharsets.UTF_8);
+            for (int p = 0; p < POSTS_PER_USER; p++) {
+                int postId = (id - 1) * POSTS_PER_USER + p + 1;
+                Post post = new Post(id, postId, "Post " + postId + " by " + user.username(),
+                        "Body of post " + postId + ".\nWritten by " + user.name() + ".");
+                postJson[id][p] = GSON.toJson(post).getBytes(StandardCharsets.UTF_8);
+            }
+            postsJson[id] = array(postJson[id], 0, POSTS_PER_USER);
+        }
+        usersJson = array(userJson, 1, users + 1);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Starts a stub on a free port.
+     *
+     * @return the running stub; close it when done
+     */
+    public static StubServer start() { return start(0); }
+
+    /**
+     * Starts a stub on a given port.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @return the running stub; close it when done
+     * @throws UncheckedIOException if the port is taken
+     */
+    public static StubServer start(int port) { return start(port, USERS); }
+
+    /**
+     * Starts a stub with a larger (or smaller) data set, e.g. to exercise
+     * pagination. Users past the tenth reuse the first ten's details with
+     * their id appended.
+     *
+     * @param port  the port to listen on, 0 for any free port
+     * @param users how many users to serve, with POSTS_PER_USER posts each
+     * @return the running stub; close it when done
+     * @throws UncheckedIOException if the port is taken
+     */
+    public static StubServer start(int port, int users) {
+        if (users < 0) throw new IllegalArgumentException("users must be >= 0: " + users);
+        try {
+            return new StubServer(port, users);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start stub server on port " + port, e);
+        }
+    }
+
+    /**
+     * Returns the JVM-wide stub, started on first use with the latency and
+     * error rate from TestConfig (API_STUB_LATENCY_MS, API_STUB_ERROR_RATE).
+     * It runs until the JVM exits, without holding the JVM open.
+     *
+     * @return the shared stub
+     */
+    public static synchronized StubServer shared() {
+        if (shared == null) {
+            // HttpServer's dispatcher thread inherits daemon status from the thread that starts it.
+            FutureTask<StubServer> starting = new FutureTask<>(StubServer::start);
+            Thread.ofPlatform().daemon().name("api-stub-start").start(starting);
+            try {
+                shared = starting.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while starting the stub server", e);
+            }
+            shared.setLatency(Duration.ofMillis(TestConfig.API_STUB_LATENCY_MS),
+                    Duration.ofMillis(TestConfig.API_STUB_LATENCY_MS));
+            shared.setErrorRate(TestConfig.API_STUB_ERROR_RATE);
+        }
+        return shared;
+    }
+
+    /** @return the URL to use as a client's base URL, e.g. "http://127.0.0.1:51234" */
+    public String baseUrl() { return baseUrl; }
+
+    /** @return how many users GET /users returns */
+    public int users() { return userCount; }
+
+    /**
+     * Delays every response by a uniform random time in [min, max].
+     *
+     * @param min the shortest delay; Duration.ZERO for none
+     * @param max the longest delay, at least min
+     */
+    public void setLatency(Duration min, Duration max) {
+        if (max.compareTo(min) < 0) throw new IllegalArgumentException("max latency " + max + " < min " + min);
+        minLatencyNanos = min.toNanos();
+        maxLatencyNanos = max.toNanos();
+    }
+
+    /**
+     * Fails a random fraction of requests with 503 and "Retry-After: 0".
+     *
+     * @param rate between 0 (never) and 1 (always)
+     */
+    public void setErrorRate(double rate) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("error rate must be within [0, 1]: " + rate);
+        errorRate = rate;
+    }
+
+    /**
+     * Fails the next requests with a fixed status, whatever their path.
+     *
+     * @param count  how many requests to fail
+     * @param status the status to answer with, e.g. 500 or 429
+     */
+    public void failNext(int count, int status) {
+        failStatus = status;
+        failNext.set(count);
+    }
+
+    /** Removes all injected latency and errors and zeroes the request count. */
+    public void reset() {
+        minLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        errorRate = 0;
+        failNext.set(0);
+        requests.set(0);
+    }
+
+    /** @return requests received since start or the last reset() */
+    public long requests() { return requests.get(); }
+
+    /** Stops listening and closes open exchanges. */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            pause();
+            int injected = injectedFailure();
+            if (injected != 0) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                send(exchange, injected, "{\"error\":\"injected failure\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            route(exchange);
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+        String path = exchange.getRequestURI().getPath().replaceAll("/+$", "");
+        Matcher user = USER_PATH.matcher(path);
+        Matcher posts = POSTS_PATH.matcher(path);
+
+        if (path.equals("/users")) {
+            if (method.equals("GET")) list(exchange, userJson, 1, userCount + 1, usersJson);
+            else if (method.equals("POST")) send(exchange, 201, echo(exchange, userCount + 1));
+            else send(exchange, 405, EMPTY_OBJECT);
+        } else if (user.matches()) {
+            int id = id(user);
+            boolean exists = id >= 1 && id <= userCount;
+            switch (method) {
+                case "GET" -> send(exchange, exists ? 200 : 404, exists ? userJson[id] : EMPTY_OBJECT);
+                case "PUT", "PATCH" -> send(exchange, exists ? 200 : 404, exists ? echo(exchange, id) : EMPTY_OBJECT);
+                case "DELETE" -> send(exchange, 200, EMPTY_OBJECT);
+                default -> send(exchange, 405, EMPTY_OBJECT);
+            }
+        } else if (posts.matches() && method.equals("GET")) {
+            int id = id(posts);
+            if (id >= 1 && id <= userCount) list(exchange, postJson[id], 0, POSTS_PER_USER, postsJson[id]);
+            else list(exchange, new byte[0][], 0, 0, EMPTY_ARRAY);
+        } else if (path.equals("/auth/login") && method.equals("POST")) {
+            login(exchange);
+        } else {
+            send(exchange, 404, EMPTY_OBJECT);
+        }
+    }
+
+    /**
+     * Answers a list request with all of items[from, to), or with the slice
+     * its pagination parameters select plus an X-Total-Count header.
+     *
+     * @param whole the pre-built body for an unpaginated request
+     */
+    private static void list(HttpExchange exchange, byte[][] items, int from, int to, byte[] whole) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        int total = to - from;
+        int start;
+        int end;
+        try {
+            if (query.containsKey("_page")) {
+                int limit = Integer.parseInt(query.getOrDefault("_limit", "10"));
+                start = (Integer.parseInt(query.get("_page")) - 1) * limit;
+                end = start + limit;
+            } else if (query.containsKey("_start") || query.containsKey("_limit")) {
+                start = Integer.parseInt(query.getOrDefault("_start", "0"));
+                end = query.containsKey("_end") ? Integer.parseInt(query.get("_end"))
+                        : query.containsKey("_limit") ? start + Integer.parseInt(query.get("_limit")) : total;
+            } else {
+                send(exchange, 200, whole);
+                return;
+            }
+        } catch (NumberFormatException e) {
+            send(exchange, 400, "{\"error\":\"pagination parameters must be integers\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        start = Math.clamp(start, 0, total);
+        end = Math.clamp(end, start, total);
+        exchange.getResponseHeaders().add("X-Total-Count", Integer.toString(total));
+        send(exchange, 200, array(items, from + start, from + end));
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /** Joins pre-serialized JSON values items[from, to) into a JSON array. */
+    private static byte[] array(byte[][] items, int from, int to) {
+        int size = 2 + Math.max(0, to - from - 1);
+        for (int i = from; i < to; i++) size += items[i].length;
+        byte[] out = new byte[size];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = from; i < to; i++) {
+            if (i > from) out[pos++] = ',';
+            System.arraycopy(items[i], 0, out, pos, items[i].length);
+            pos += items[i].length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    /** Answers a login: 401 without a username and password, otherwise a token valid for an hour. */
+    private void login(HttpExchange exchange) throws IOException {
+        JsonObject credentials = jsonBody(exchange);
+        String username = credentials.has("username") ? credentials.get("username").getAsString() : "";
+        String password = credentials.has("password") ? credentials.get("password").getAsString() : "";
+        if (username.isEmpty() || password.isEmpty()) {
+            send(exchange, 401, "{\"error\":\"invalid credentials\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+        JsonObject claims = new JsonObject();
+        claims.addProperty("sub", username);
+        claims.addProperty("exp", System.currentTimeMillis() / 1000 + 3600);
+        String token = b64.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + b64.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8)) + ".stub";
+        JsonObject body = new JsonObject();
+        body.addProperty("token", token);
+        send(exchange, 200, body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return the request body as an object with "id" set, like jsonplaceholder's fake writes */
+    private static byte[] echo(HttpExchange exchange, int id) throws IOException {
+        JsonObject body = jsonBody(exchange);
+        body.addProperty("id", id);
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonObject jsonBody(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        try (InputStream in = Compression.decode(exchange.getRequestBody(), encoding)) {
+            JsonElement json = JsonParser.parseString(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            return json.isJsonObject() ? json.getAsJsonObject() : new JsonObject();
+        } catch (JsonParseException e) {
+            return new JsonObject();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip") && body.length >= 1024) {
+            body = Compression.gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) { out.write(body); }
+    }
+
+    private void pause() {
+        long min = minLatencyNanos;
+        long max = maxLatencyNanos;
+        if (max == 0) return;
+        long nanos = min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return the status of an injected failure for this request, or 0 */
+    private int injectedFailure() {
+        if (failNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) return failStatus;
+        double rate = errorRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate ? 503 : 0;
+    }
+
+    private static int id(Matcher m) {
+        try {
+            return Integer.parseInt(m.group(1));
+        } catch (NumberFormatException e) {
+            return -1;   // more digits than an int: no such user
+        }
+    }
+
+    private static User user(int id) {
+        String[] p = PEOPLE[(id - 1) % PEOPLE.length].clone();
+        if (id > PEOPLE.length) {
+            p[0] += " " + id;
+            p[1] += id;
+            p[2] = id + "." + p[2];
+        }
+        return new User(id, p[0], p[1], p[2],
+                new User.Address(id + " Main Street", "Apt. " + (100 + id), p[3], String.format("%05d", 10000 + id)),
+                "1-770-736-80" + String.format("%02d", id), p[1].toLowerCase(Locale.ROOT) + ".org",
+                new User.Company(p[0].split(" ")[1] + " LLC", "Multi-layered client-server neural-net", "harness real-time e-markets"));
+    }
+}
@@ -0,0 +1,291 @@
+package api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import config.TestConfig;
+import io.restassured.response.Response;
+
+/**
+ * Process-wide cache of JWT tokens, keyed by base URL and credentials.
+ *
+ * Without it every ApiClient/UserApi instance logs in on its own, so parallel
+ * suites hammer /auth/login. With it, the first authenticate() for a given
+ * user logs in and every later one — from any client, on any thread — reuses
+ * the cached token.
+ *
+ * Expiry: the token's JWT "exp" claim is decoded and a background refresh is
+ * scheduled TestConfig.API_TOKEN_REFRESH_SKEW_SEC before it (at half the
+ * remaining lifetime for tokens shorter-lived than that, and never sooner
+ * than 5 seconds). Clients hold the
+ * cache Entry, not the token string, so they pick up the refreshed token on
+ * their next request without ever blocking on login. Tokens without an "exp"
+ * claim (or that are not JWTs) are cached until clear() is called.
+ *
+ * Single-flight: when many threads authenticate with the same credentials at
+ * once (e.g. 20 parallel test classes starting together), only one login
+ * request is sent. The others wait on the same in-flight future and share its
+ * result.
+ *
+ * Passwords are never used as map keys — only their SHA-256 hash.
+ *
+ * Example:
+ *   TokenCache.Entry e = TokenCache.shared().get(baseUrl, "admin", "secret");
+ *   e.token();    // current token, refreshed in the background
+ *   e.headers();  // {Authorization=Bearer <token>}
+ */
+public final class TokenCache {
+
+    /** Delay before retrying a failed background refresh. */
+    private static final long RETRY_MILLIS = 5_000;
+
+    private static final TokenCache SHARED = new TokenCache(RETRY_MILLIS);
+
+    /** Cache key: the password is hashed so it never sits in the key set. */
+    private record Key(String baseUrl, String username, String passwordHash) { }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Logins currently in progress; concurrent lookups for the same key join these. */
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    /** Runs logins started by getAsync(), so callers never block on them. */
+    private final ExecutorService loginExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("api-token-login-", 0).factory());
+
+    /** One login transport per base URL, independent of any client's lifecycle. */
+    private final Map<String, HttpTransport> loginTransports = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-token-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long retryMillis;
+
+    /** @param retryMillis delay before retrying a failed background refresh; tests shorten it */
+    TokenCache(long retryMillis) { this.retryMillis = retryMillis; }
+
+    /** @return the JVM-wide cache used by ApiClient.authenticate() */
+    public static TokenCache shared() { return SHARED; }
+
+    /**
+     * Returns the cached entry for these credentials, logging in first if there
+     * is none yet (or the cached token has expired without a successful refresh).
+     *
+     * If another thread is already logging in with the same credentials, this
+     * waits for that login instead of sending a second one. Otherwise the login
+     * runs on the calling thread.
+     *
+     * @param baseUrl  the API root that serves /auth/login
+     * @param username the login username
+     * @param password the login password
+     * @return the cache entry, or null if the login response carried no token
+     */
+    public Entry get(String baseUrl, String username, String password) {
+        try {
+            return lookup(baseUrl, username, password, true).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Async variant of get(): returns at once with a future for the entry.
+     * Concurrent callers with the same credentials get the same in-flight
+     * future, so only one login request is sent.
+     *
+     * @param baseUrl  the API root that serves /auth/login
+     * @param username the login username
+     * @param password the login password
+     * @return a future for the cache entry (completes with null if the login carried no token)
+     */
+    public CompletableFuture<Entry> getAsync(String baseUrl, String username, String password) {
+        return lookup(baseUrl, username, password, false);
+    }
+
+    /**
+     * Cache hit, join an in-flight login, or become the one caller that logs in.
+     *
+     * @param inline whether the login runs on the calling thread (sync) or the login executor (async)
+     */
+    private CompletableFuture<Entry> lookup(String baseUrl, String username, String password, boolean inline) {
+        Key key = new Key(baseUrl, username, sha256(password));
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) return CompletableFuture.completedFuture(entry);
+
+        CompletableFuture<Entry> login = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(key, login);
+        if (running != null) return running;
+
+        Runnable task = () -> {
+            try {
+                // Another leader may have finished between our cache miss and claiming the slot.
+                Entry cached = entries.get(key);
+                login.complete(cached != null && !cached.isExpired()
+                        ? cached
+                        : loginAndCache(key, () -> login(baseUrl, username, password)));
+            } catch (Throwable t) {
+                login.completeExceptionally(t);
+            } finally {
+                inFlight.remove(key, login);
+            }
+        };
+        if (inline) task.run();
+        else loginExecutor.execute(task);
+        return login;
+    }
+
+    /** Logs in, stores the new entry (retiring any expired one) and schedules its refresh. */
+    private Entry loginAndCache(Key key, Supplier<String> login) {
+        String token = login.get();
+        if (token == null) return null;
+        Entry created = new Entry(login, token);
+        Entry replaced = entries.put(key, created);
+        if (replaced != null) replaced.retire();
+        scheduleRefresh(created);
+        return created;
+    }
+
+    /** Drops every cached token. Background refreshes for dropped entries stop. */
+    public void clear() {
+        entries.values().forEach(Entry::retire);
+        entries.clear();
+    }
+
+    /** Logs in once via POST /auth/login and returns the "token" field, or null. */
+    private String login(String baseUrl, String username, String password) {
+        HttpTransport transport = loginTransports.computeIfAbsent(baseUrl,
+                url -> CassetteTransport.fromConfig(url, HttpTransport::fromConfig));
+        Response res = transport.execute(ApiRequest.post("/auth/login",
+                Map.of("username", username, "password", password)));
+        if (res.statusCode() >= 400) return null;
+        return res.jsonPath().getString("token");
+    }
+
+    private void scheduleRefresh(Entry entry) {
+        long expiresAt = entry.expiresAtMillis;
+        if (expiresAt == 0 || entry.retired) return;
+        refresher.schedule(() -> refresh(entry), refreshDelayMillis(expiresAt, System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * How long to wait before refreshing a token: until
+     * TestConfig.API_TOKEN_REFRESH_SKEW_SEC before it expires, or half its
+     * remaining lifetime if that is shorter than the skew. Never less than
+     * RETRY_MILLIS, so a server issuing short-lived tokens is not sent a
+     * login in a tight loop.
+     *
+     * @param expiresAt the token's expiry in epoch milliseconds
+     * @param now       the current time in epoch milliseconds
+     * @return the delay in milliseconds
+     */
+    static long refreshDelayMillis(long expiresAt, long now) {
+        long remaining = expiresAt - now;
+        long skew = TimeUnit.SECONDS.toMillis(TestConfig.API_TOKEN_REFRESH_SKEW_SEC);
+        return Math.max(RETRY_MILLIS, remaining > skew ? remaining - skew : remaining / 2);
+    }
+
+    /** Logs in again for entry; on any failure keeps the current token and retries after retryMillis. */
+    void refresh(Entry entry) {
+        if (entry.retired) return;
+        try {
+            String token = entry.login.get();
+            if (token != null) {
+                entry.update(token);
+                scheduleRefresh(entry);
+                return;
+            }
+        } catch (Exception e) {
+            // Keep serving the current token; try again shortly. Exception, not RuntimeException:
+            // REST Assured rethrows checked I/O errors undeclared.
+        }
+        if (!entry.retired) refresher.schedule(() -> refresh(entry), retryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the "exp" claim (seconds since the epoch) from a JWT without verifying it.
+     *
+     * @param token the token
+     * @return expiry in epoch milliseconds, or 0 if the token is not a JWT or has no exp claim
+     */
+    static long expiryMillis(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) return 0;
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            JsonElement json = JsonParser.parseString(payload);
+            if (!json.isJsonObject()) return 0;
+            JsonObject claims = json.getAsJsonObject();
+            return claims.has("exp") ? TimeUnit.SECONDS.toMillis(claims.get("exp").getAsLong()) : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached token for one set of credentials. The token and its pre-built
+     * Authorization header are swapped atomically by background refreshes.
+     */
+    public static final class Entry {
+
+        /** Token plus header map, replaced as a unit so readers never see a mismatched pair. */
+        private record State(String token, Map<String, String> headers) { }
+
+        private final Supplier<String> login;
+        private volatile State state;
+        private volatile long expiresAtMillis;
+        private volatile boolean retired;
+
+        Entry(Supplier<String> login, String token) {
+            this.login = login;
+            update(token);
+        }
+
+        /** @return the current token */
+        public String token() { return state.token(); }
+
+        /** @return {Authorization=Bearer <current token>}, pre-built so requests do not allocate it */
+        public Map<String, String> headers() { return state.headers(); }
+
+        /** @return the token's expiry in epoch milliseconds, or 0 if unknown */
+        public long expiresAtMillis() { return expiresAtMillis; }
+
+        boolean isExpired() { return expiresAtMillis != 0 && System.currentTimeMillis() >= expiresAtMillis; }
+
+        private void update(String token) {
+            this.state = new State(token, Map.of("Authorization", "Bearer " + token));
+            this.expiresAtMillis = expiryMillis(token);
+        }
+
+        private void retire() { retired = true; }
+    }
+}
@@ -0,0 +1,100 @@
+package api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide count of bytes sent and received by the transports, both as
+ * they crossed the wire and after decoding ("logical").
+ *
+ * With -DapiCompression=true the two differ by what gzip/deflate saved; with
+ * it off they are equal, which gives the baseline to compare a CI run
+ * against.
+ *
+ * Streamed bodies (getStream(), getBody()) are not counted. With the REST
+ * Assured transport and compression off, neither are responses nor Map/POJO
+ * request bodies that REST Assured serializes itself: counting them would
+ * mean reading every body into memory just to measure it.
+ *
+ * Example:
+ *   TransferStats.Snapshot s = api.getTransferStats();
+ *   System.out.printf("received %,d bytes on the wire for %,d bytes of JSON (%.0f%% saved)%n",
+ *           s.responseWireBytes(), s.responseBytes(), s.responseSavedPercent());
+ */
+public final class TransferStats {
+
+    private static final TransferStats SHARED = new TransferStats();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder responseWireBytes = new LongAdder();
+
+    /**
+     * Totals since start (or the last reset()).
+     *
+     * @param requests          request bodies counted
+     * @param requestBytes      request body bytes before encoding
+     * @param requestWireBytes  request body bytes sent
+     * @param responses         response bodies counted
+     * @param responseBytes     response body bytes after decoding
+     * @param responseWireBytes response body bytes received
+     */
+    public record Snapshot(long requests, long requestBytes, long requestWireBytes,
+                           long responses, long responseBytes, long responseWireBytes) {
+
+        /** @return bytes compression kept off the wire, both directions */
+        public long savedBytes() { return requestBytes - requestWireBytes + responseBytes - responseWireBytes; }
+
+        /** @return share of response bytes saved, 0–100 */
+        public double responseSavedPercent() {
+            return responseBytes == 0 ? 0 : 100.0 * (responseBytes - responseWireBytes) / responseBytes;
+        }
+    }
+
+    /** @return the stats every transport in the JVM records into */
+    public static TransferStats shared() { return SHARED; }
+
+    TransferStats() { }
+
+    /**
+     * Records one request body.
+     *
+     * @param logical bytes before encoding
+     * @param wire    bytes sent
+     */
+    public void recordRequest(long logical, long wire) {
+        requests.increment();
+        requestBytes.add(logical);
+        requestWireBytes.add(wire);
+    }
+
+    /**
+     * Records one response body.
+     *
+     * @param logical bytes after decoding
+     * @param wire    bytes received
+     */
+    public void recordResponse(long logical, long wire) {
+        responses.increment();
+        responseBytes.add(logical);
+        responseWireBytes.add(wire);
+    }
+
+    /** @return the current totals */
+    public Snapshot snapshot() {
+        return new Snapshot(requests.sum(), requestBytes.sum(), requestWireBytes.sum(),
+                responses.sum(), responseBytes.sum(), responseWireBytes.sum());
+    }
+
+    /** Zeroes every counter, e.g. between benchmark phases. */
+    public void reset() {
+        requests.reset();
+        requestBytes.reset();
+        requestWireBytes.reset();
+        responses.reset();
+        responseBytes.reset();
+        responseWireBytes.reset();
+    }
+}
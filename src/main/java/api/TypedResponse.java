@@ -0,0 +1,57 @@
+package api;
+
+import java.util.function.Function;
+
+import io.restassured.response.Response;
+
+/**
+ * A response together with its body bound to a Java type.
+ *
+ * The raw Response stays available for status and header assertions. The
+ * body is bound on the first call to body() — a test that only checks the
+ * status never parses it — and the result is kept for later calls.
+ *
+ * Example:
+ *   TypedResponse<List<User>> users = api.getUserList();
+ *   Assert.assertEquals(users.statusCode(), 200);
+ *   Assert.assertEquals(users.body().get(0).username(), "Bret");
+ *   Assert.assertEquals(users.response().header("Content-Type"), "application/json; charset=utf-8");
+ *
+ * @param <T> the body type
+ */
+public final class TypedResponse<T> {
+
+    private final Response response;
+    private final Function<byte[], T> binder;
+    private T body;            // guarded by this
+    private boolean bound;     // guarded by this
+
+    /**
+     * @param response the raw response
+     * @param binder   turns the body bytes into T, e.g. bytes -> JsonBinding.one(bytes, User.class)
+     */
+    public TypedResponse(Response response, Function<byte[], T> binder) {
+        this.response = response;
+        this.binder = binder;
+    }
+
+    /** @return the raw response, for status, header and JsonPath assertions */
+    public Response response() { return response; }
+
+    /** @return the HTTP status code */
+    public int statusCode() { return response.statusCode(); }
+
+    /**
+     * Binds the body on first use.
+     *
+     * @return the bound body; null if the body is empty
+     * @throws com.google.gson.JsonParseException if the body does not match T (e.g. an error payload)
+     */
+    public synchronized T body() {
+        if (!bound) {
+            body = binder.apply(response.asByteArray());
+            bound = true;
+        }
+        return body;
+    }
+}
@@ -0,0 +1,39 @@
+package api;
+
+/**
+ * A user as returned by GET /users and GET /users/{id}.
+ *
+ * Bound by JsonBinding; fields the API adds later are ignored, fields it
+ * omits are null (0 for id).
+ *
+ * Example:
+ *   User user = api.getUser(1).body();
+ *   Assert.assertEquals(user.username(), "Bret");
+ *
+ * @param id       the user ID
+ * @param name     full name
+ * @param username login name
+ * @param email    email address
+ * @param address  postal address
+ * @param phone    phone number, free-form
+ * @param website  home page host name
+ * @param company  employer
+ */
+public record User(int id, String name, String username, String email,
+                   Address address, String phone, String website, Company company) {
+
+    /**
+     * @param street  street and number
+     * @param suite   apartment or suite
+     * @param city    city
+     * @param zipcode postal code
+     */
+    public record Address(String street, String suite, String city, String zipcode) { }
+
+    /**
+     * @param name        company name
+     * @param catchPhrase slogan
+     * @param bs          business summary
+     */
+    public record Company(String name, String catchPhrase, String bs) { }
+}
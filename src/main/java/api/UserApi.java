@@ -1,7 +1,13 @@
 package api;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
+import com.google.gson.JsonObject;
+
+import config.TestConfig;
 import io.restassured.response.Response;
 
 /**
@@ -18,9 +24,44 @@ import io.restassured.response.Response;
  *   UserApi api = new UserApi();
  *   Response r = api.getUserById(1);
  *   Assert.assertEquals(r.statusCode(), 200);
+ *
+ * Typed variants (getUserList(), getUser(), getUserPostList()) bind the body
+ * to User/Post records in one pass and keep the raw Response reachable:
+ *
+ *   TypedResponse<User> user = api.getUser(1);
+ *   Assert.assertEquals(user.statusCode(), 200);
+ *   Assert.assertEquals(user.body().email(), "Sincere@april.biz");
  */
 public class UserApi extends ApiClient {
 
+    /**
+     * Body template for POST /users, for bulk creation without object mapping.
+     * Values in names() order: name, username, email.
+     *
+     * Example:
+     *   byte[] body = UserApi.NEW_USER.render("Alice", "alice", "alice@example.com");
+     */
+    public static final JsonTemplate NEW_USER =
+            JsonTemplate.compile("{\"name\": ${name}, \"username\": ${username}, \"email\": ${email}}");
+
+    /** Creates a UserApi whose async executor is chosen by TestConfig.API_EXECUTOR. */
+    public UserApi() { super(); }
+
+    /**
+     * Creates a UserApi for another base URL; it shares its transport and
+     * executor with every other client of that URL.
+     *
+     * @param baseUrl the API root, e.g. "http://localhost:8089"
+     */
+    public UserApi(String baseUrl) { super(baseUrl); }
+
+    /**
+     * Creates a UserApi that runs async calls on a caller-supplied executor.
+     *
+     * @param executor the executor to run async requests on (not shut down by shutdown())
+     */
+    public UserApi(ExecutorService executor) { super(executor); }
+
     /**
      * Fetches all users.
      * GET /users
@@ -29,6 +70,61 @@ public class UserApi extends ApiClient {
      */
     public Response getUsers() { return get("/users"); }
 
+    /**
+     * Fetches all users, bound to User records.
+     * GET /users
+     *
+     * @return the response; body() is the list of users
+     */
+    public TypedResponse<List<User>> getUserList() { return getList("/users", User.class); }
+
+    /**
+     * Streams all users one at a time instead of loading the whole list.
+     * GET /users
+     *
+     * Example:
+     *   try (Stream<JsonObject> users = api.streamUsers()) {
+     *       Assert.assertTrue(users.allMatch(u -> u.has("email")));
+     *   }
+     *
+     * @return a lazily parsed stream of user objects; close it to release the connection
+     */
+    public Stream<JsonObject> streamUsers() { return getStream("/users", JsonObject.class); }
+
+    /**
+     * Streams all users page by page, with TestConfig.API_PAGE_SIZE users per
+     * page and TestConfig.API_PAGE_PREFETCH pages fetched ahead.
+     * GET /users?_page={n}&_limit={size}
+     *
+     * Example:
+     *   try (Stream<User> users = api.streamUsersPaged()) {
+     *       Assert.assertTrue(users.allMatch(u -> u.email().contains("@")));
+     *   }
+     *
+     * @return a lazily fetched stream of users; close it to cancel pages still in flight
+     */
+    public Stream<User> streamUsersPaged() { return streamUsersPaged(TestConfig.API_PAGE_SIZE); }
+
+    /**
+     * Streams all users page by page with the given page size.
+     * GET /users?_page={n}&_limit={pageSize}
+     *
+     * @param pageSize users per page
+     * @return a lazily fetched stream of users; close it to cancel pages still in flight
+     */
+    public Stream<User> streamUsersPaged(int pageSize) { return getUserPages(pageSize).stream(); }
+
+    /**
+     * Iterates all users one page at a time.
+     * GET /users?_page={n}&_limit={pageSize}
+     *
+     * @param pageSize users per page
+     * @return an iterator of pages, TestConfig.API_PAGE_PREFETCH of them fetched ahead
+     */
+    public PageIterator<User> getUserPages(int pageSize) {
+        return getPages("/users", User.class, pageSize, TestConfig.API_PAGE_PREFETCH);
+    }
+
     /**
      * Fetches a single user by their ID.
      * GET /users/{id}
@@ -38,6 +134,15 @@ public class UserApi extends ApiClient {
      */
     public Response getUserById(int id) { return get("/users/" + id); }
 
+    /**
+     * Fetches a single user by their ID, bound to a User record.
+     * GET /users/{id}
+     *
+     * @param id the user ID
+     * @return the response; body() is the user
+     */
+    public TypedResponse<User> getUser(int id) { return get("/users/" + id, User.class); }
+
     /**
      * Creates a new user.
      * POST /users
@@ -47,6 +152,50 @@ public class UserApi extends ApiClient {
      */
     public Response createUser(Map<String, Object> data) { return post("/users", data); }
 
+    /**
+     * Creates a new user from a pre-serialized JSON body, sent as-is.
+     * POST /users
+     *
+     * @param json the user as UTF-8 JSON, e.g. from NEW_USER.render(...)
+     * @return response with status 201 and the created user (including assigned ID)
+     */
+    public Response createUser(byte[] json) { return post("/users", json); }
+
+    /**
+     * Creates many users concurrently (one POST /users each) and returns the
+     * responses in input order. Fails fast on the first request that throws.
+     *
+     * Example:
+     *   List<Response> created = api.createUsers(List.of(alice, bob, carol));
+     *
+     * @param users the user fields for each user to create
+     * @return one response per user, in the same order
+     * @throws BatchException if any request fails with an exception
+     */
+    public List<Response> createUsers(List<Map<String, Object>> users) {
+        return batch(users.stream().map(u -> ApiRequest.post("/users", u)).toList());
+    }
+
+    /**
+     * Creates many users concurrently from a body template: each row's values
+     * are written into the template's cached byte layout, so no Map is built
+     * and no object mapper runs. Responses come back in input order.
+     *
+     * Example:
+     *   List<Object[]> rows = IntStream.range(0, 100_000)
+     *           .mapToObj(i -> new Object[] {"User " + i, "user" + i, "user" + i + "@example.com"})
+     *           .toList();
+     *   List<Response> created = api.createUsers(UserApi.NEW_USER, rows);
+     *
+     * @param template the body template, usually NEW_USER
+     * @param rows     one value array per user, in template.names() order
+     * @return one response per user, in the same order
+     * @throws BatchException if any request fails with an exception
+     */
+    public List<Response> createUsers(JsonTemplate template, List<Object[]> rows) {
+        return batch(rows.stream().map(r -> ApiRequest.post("/users", template.render(r))).toList());
+    }
+
     /**
      * Replaces an existing user's data entirely.
      * PUT /users/{id}
@@ -74,4 +223,44 @@ public class UserApi extends ApiClient {
      * @return response containing a JSON array of post objects
      */
     public Response getUserPosts(int id) { return get("/users/" + id + "/posts"); }
+
+    /**
+     * Fetches all posts authored by a specific user, bound to Post records.
+     * GET /users/{id}/posts
+     *
+     * @param id the user ID whose posts to retrieve
+     * @return the response; body() is the list of posts
+     */
+    public TypedResponse<List<Post>> getUserPostList(int id) { return getList("/users/" + id + "/posts", Post.class); }
+
+    /**
+     * Fetches all users, then every user's posts concurrently, with
+     * TestConfig.API_FAN_OUT_CONCURRENCY posts calls in flight at most.
+     * GET /users, then GET /users/{id}/posts for each user
+     *
+     * Example:
+     *   UsersWithPosts all = api.getUsersWithPosts();
+     *   Assert.assertEquals(all.postsOf(1).size(), 10);
+     *   System.out.println(all.format());   // wall time vs the sequential baseline
+     *
+     * @return every user joined with their posts, with the time the fan-out saved
+     * @throws IllegalStateException if any call returns a 4xx/5xx status
+     */
+    public UsersWithPosts getUsersWithPosts() { return getUsersWithPosts(TestConfig.API_FAN_OUT_CONCURRENCY); }
+
+    /**
+     * Fetches all users, then every user's posts with at most maxConcurrency
+     * posts calls in flight. The first failed call cancels the rest. The
+     * calls go through the async path, so they also respect the client's
+     * in-flight limit (TestConfig.API_MAX_IN_FLIGHT), which caps maxConcurrency.
+     * GET /users, then GET /users/{id}/posts for each user
+     *
+     * @param maxConcurrency the most posts calls in flight at once; 1 loads them one by one
+     * @return every user joined with their posts, with the time the fan-out saved
+     * @throws IllegalStateException if any call returns a 4xx/5xx status
+     */
+    public UsersWithPosts getUsersWithPosts(int maxConcurrency) {
+        int limit = getInFlightLimit();
+        return UsersWithPosts.load(this::getAsync, limit > 0 ? Math.min(maxConcurrency, limit) : maxConcurrency);
+    }
 }
\ No newline at end of file
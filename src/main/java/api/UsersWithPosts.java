@@ -0,0 +1,158 @@
+package api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.restassured.response.Response;
+
+/**
+ * Every user joined with their posts, loaded by fanning the per-user
+ * GET /users/{id}/posts calls out concurrently instead of one after another.
+ *
+ * The user list is fetched first; then at most concurrency posts calls are
+ * outstanding at once through the client's async path, the next one sent as
+ * an earlier one finishes. Each call is timed from send to response, and the
+ * sum of those latencies is the sequential baseline: what the same N+1 calls
+ * would have taken back to back. Comparing it with the measured wall time
+ * shows what the parallelism saved. The baseline is an estimate — a server
+ * under concurrent load may answer each call slower than it would one at a
+ * time, which makes the saving look larger than a truly sequential run would
+ * show.
+ *
+ * Example:
+ *   UsersWithPosts all = api.getUsersWithPosts();
+ *   Assert.assertTrue(all.users().stream().allMatch(u -> !u.posts().isEmpty()));
+ *   System.out.println(all.format());
+ *
+ * @param users       one entry per user, in the order GET /users returned them
+ * @param requests    HTTP calls made, including GET /users
+ * @param concurrency the most posts calls allowed in flight at once
+ * @param elapsed     wall time for the whole load
+ * @param sequential  sum of the individual call latencies
+ */
+public record UsersWithPosts(List<Entry> users, int requests, int concurrency, Duration elapsed, Duration sequential) {
+
+    /**
+     * A user and their posts.
+     *
+     * @param user  the user
+     * @param posts the user's posts, in server order
+     */
+    public record Entry(User user, List<Post> posts) { }
+
+    /** @return wall time the fan-out saved over the sequential baseline; negative if it cost time */
+    public Duration saved() { return sequential.minus(elapsed); }
+
+    /** @return sequential baseline divided by wall time; above 1 when the fan-out paid off */
+    public double speedup() {
+        return elapsed.isZero() ? 1 : (double) sequential.toNanos() / elapsed.toNanos();
+    }
+
+    /** @return posts across all users */
+    public int postCount() { return users.stream().mapToInt(e -> e.posts().size()).sum(); }
+
+    /**
+     * @param userId the user ID
+     * @return that user's posts; empty if the user was not in the list
+     */
+    public List<Post> postsOf(int userId) {
+        return users.stream().filter(e -> e.user().id() == userId).findFirst().map(Entry::posts).orElse(List.of());
+    }
+
+    /** @return a one-line summary of the load and the time saved */
+    public String format() {
+        return String.format(Locale.ROOT,
+                "%d users, %d posts in %d requests (concurrency %d): %d ms vs %d ms sequential, saved %d ms (%.1fx)",
+                users.size(), postCount(), requests, concurrency, elapsed.toMillis(), sequential.toMillis(),
+                saved().toMillis(), speedup());
+    }
+
+    /**
+     * Loads the user list, then every user's posts with at most maxConcurrency
+     * posts calls in flight. Fails fast: the first failed call stops further
+     * calls, cancels those still in flight and is rethrown.
+     *
+     * Calls are sent with getAsync, e.g. ApiClient::getAsync, so they share the
+     * client's executor and in-flight limit, and cancelling one aborts its HTTP
+     * exchange. Each call is timed from hand-off to response.
+     *
+     * @param getAsync       sends a GET for a path and returns the transport's future
+     * @param maxConcurrency the most posts calls in flight at once; 1 loads them one by one
+     * @return the joined users and posts with their timings
+     * @throws IllegalStateException if a call returns a 4xx/5xx status
+     */
+    static UsersWithPosts load(Function<String, CompletableFuture<Response>> getAsync, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be >= 1: " + maxConcurrency);
+        long start = System.nanoTime();
+        LongAdder busy = new LongAdder();
+        List<User> users;
+        try {
+            users = send(getAsync, "/users", User.class, busy, new ArrayList<>()).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+
+        Semaphore window = new Semaphore(maxConcurrency);
+        CompletableFuture<Throwable> failed = new CompletableFuture<>();
+        List<CompletableFuture<Response>> calls = new ArrayList<>(users.size());
+        List<CompletableFuture<List<Post>>> posts = new ArrayList<>(users.size());
+        for (User user : users) {
+            window.acquireUninterruptibly();
+            if (failed.isDone()) break;
+            CompletableFuture<List<Post>> bound = send(getAsync, "/users/" + user.id() + "/posts", Post.class, busy, calls);
+            bound.whenComplete((p, e) -> {
+                if (e != null) failed.complete(e);   // before release(), so no call is sent after it
+                window.release();
+            });
+            posts.add(bound);
+        }
+        CompletableFuture.anyOf(CompletableFuture.allOf(posts.toArray(new CompletableFuture<?>[0])), failed)
+                .exceptionally(e -> null).join();
+        if (failed.isDone()) {
+            calls.forEach(c -> c.cancel(true));
+            throw unwrap(failed.join());
+        }
+
+        List<Entry> entries = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) entries.add(new Entry(users.get(i), posts.get(i).join()));
+        return new UsersWithPosts(List.copyOf(entries), users.size() + 1, maxConcurrency,
+                Duration.ofNanos(System.nanoTime() - start), Duration.ofNanos(busy.sum()));
+    }
+
+    /**
+     * Sends one GET, adding the call to calls (for cancellation) and its latency
+     * to busy, and binds the body to a list of type.
+     */
+    private static <T> CompletableFuture<List<T>> send(Function<String, CompletableFuture<Response>> getAsync,
+                                                       String path, Class<T> type, LongAdder busy,
+                                                       List<CompletableFuture<Response>> calls) {
+        long begin = System.nanoTime();
+        CompletableFuture<Response> call;
+        try {
+            call = getAsync.apply(path);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        calls.add(call);
+        return call.thenApply(res -> {
+            busy.add(System.nanoTime() - begin);
+            if (res.statusCode() >= 400) {
+                throw new IllegalStateException("GET " + path + " returned " + res.statusCode() + ": " + res.asString());
+            }
+            return JsonBinding.list(res.asByteArray(), type);
+        });
+    }
+
+    /** The failure a caller should see: the cause of a CompletionException, rethrown as is if unchecked. */
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof RuntimeException r ? r : new CompletionException(cause);
+    }
+}
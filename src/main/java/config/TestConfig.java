@@ -47,4 +47,314 @@ public class TestConfig {
      * Default: true
      */
     public static final boolean HEADLESS = Boolean.parseBoolean(System.getProperty("headless", "true"));
-}
\ No newline at end of file
+
+    /**
+     * Executor used by ApiClient for async requests (getAsync, postAsync, ...).
+     * - fixed: a fixed pool of API_POOL_SIZE platform threads (extra calls queue)
+     * - virtual: one virtual thread per request, so fan-out is bounded by the
+     *   server rather than by the pool size
+     * A caller-supplied executor can be passed to the ApiClient constructor instead.
+     * Override with: -DapiExecutor=virtual
+     * Default: fixed
+     */
+    public static final String API_EXECUTOR = System.getProperty("apiExecutor", "fixed");
+
+    /**
+     * Number of threads in the fixed async pool (only used when API_EXECUTOR is fixed).
+     * Override with: -DapiPoolSize=20
+     * Default: 5
+     */
+    public static final int API_POOL_SIZE = Integer.parseInt(System.getProperty("apiPoolSize", "5"));
+
+    /**
+     * Maximum number of async requests an ApiClient accepts before applying
+     * backpressure (running plus waiting for a thread). 0 means unlimited.
+     * Override with: -DapiMaxInFlight=200
+     * Default: 0
+     */
+    public static final int API_MAX_IN_FLIGHT = Integer.parseInt(System.getProperty("apiMaxInFlight", "0"));
+
+    /**
+     * What ApiClient does with an async request when the in-flight limit is reached.
+     * - block: the calling thread waits until a slot frees up
+     * - reject: the call returns a future failed with RejectedExecutionException
+     * Override with: -DapiOverflow=reject
+     * Default: block
+     */
+    public static final String API_OVERFLOW = System.getProperty("apiOverflow", "block");
+
+    /**
+     * How ApiClient logs requests and responses.
+     * - failure: keep recent exchanges in a per-thread memory buffer and print
+     *   them only when a test fails (see ApiLog)
+     * - all: print every request and response to the console as it happens
+     * Override with: -DapiLog=all
+     * Default: failure
+     */
+    public static final String API_LOG = System.getProperty("apiLog", "failure");
+
+    /**
+     * Number of recent request/response pairs kept per thread in failure log mode.
+     * Override with: -DapiLogBufferSize=50
+     * Default: 20
+     */
+    public static final int API_LOG_BUFFER_SIZE = Integer.parseInt(System.getProperty("apiLogBufferSize", "20"));
+
+    /**
+     * HTTP transport used by ApiClient.
+     * - restassured: REST Assured (blocking; async calls hold an executor thread)
+     * - jdk: java.net.http.HttpClient with HTTP/2 multiplexing and non-blocking sendAsync
+     * Both return REST Assured Response objects, so tests are unaffected.
+     * Override with: -DapiTransport=jdk
+     * Default: restassured
+     */
+    public static final String API_TRANSPORT = System.getProperty("apiTransport", "restassured");
+
+    /**
+     * Maximum number of pooled HTTP connections per ApiClient transport, across all hosts.
+     * Override with: -DapiMaxConnections=100
+     * Default: 50
+     */
+    public static final int API_MAX_CONNECTIONS = Integer.parseInt(System.getProperty("apiMaxConnections", "50"));
+
+    /**
+     * Maximum number of pooled HTTP connections to a single host (route).
+     * Override with: -DapiMaxConnectionsPerRoute=50
+     * Default: 20
+     */
+    public static final int API_MAX_CONNECTIONS_PER_ROUTE =
+            Integer.parseInt(System.getProperty("apiMaxConnectionsPerRoute", "20"));
+
+    /**
+     * How long an idle connection is kept alive for reuse, in milliseconds, when
+     * the server does not send its own Keep-Alive timeout (a shorter server value wins).
+     * Idle connections older than this are also evicted from the pool in the background.
+     * Override with: -DapiKeepAliveMs=60000
+     * Default: 30000
+     */
+    public static final long API_KEEP_ALIVE_MS = Long.parseLong(System.getProperty("apiKeepAliveMs", "30000"));
+
+    /**
+     * Timeout in milliseconds for establishing a TCP connection to the API.
+     * Override with: -DapiConnectTimeoutMs=2000
+     * Default: 10000
+     */
+    public static final int API_CONNECT_TIMEOUT_MS = Integer.parseInt(System.getProperty("apiConnectTimeoutMs", "10000"));
+
+    /**
+     * Timeout in milliseconds waiting for response data on an open connection
+     * (socket read timeout; the response timeout for the jdk transport).
+     * Override with: -DapiSocketTimeoutMs=5000
+     * Default: 30000
+     */
+    public static final int API_SOCKET_TIMEOUT_MS = Integer.parseInt(System.getProperty("apiSocketTimeoutMs", "30000"));
+
+    /**
+     * How many seconds before a cached JWT's "exp" claim the shared TokenCache
+     * logs in again in the background, so requests never see an expired token.
+     * Override with: -DapiTokenRefreshSkewSec=120
+     * Default: 60
+     */
+    public static final long API_TOKEN_REFRESH_SKEW_SEC =
+            Long.parseLong(System.getProperty("apiTokenRefreshSkewSec", "60"));
+
+    /**
+     * Whether ApiClient GETs go through the shared conditional-GET response cache.
+     * Override with: -DapiCache=true
+     * Default: false
+     */
+    public static final boolean API_CACHE = Boolean.parseBoolean(System.getProperty("apiCache", "false"));
+
+    /**
+     * Upper bound on response body bytes held by the shared response cache;
+     * least recently used entries are evicted beyond it.
+     * Override with: -DapiCacheMaxBytes=52428800
+     * Default: 10485760 (10 MB)
+     */
+    public static final long API_CACHE_MAX_BYTES = Long.parseLong(System.getProperty("apiCacheMaxBytes", "10485760"));
+
+    /**
+     * How long a cached GET response is served without contacting the server.
+     * After that it is revalidated with If-None-Match / If-Modified-Since.
+     * Override with: -DapiCacheTtlMs=300000
+     * Default: 60000
+     */
+    public static final long API_CACHE_TTL_MS = Long.parseLong(System.getProperty("apiCacheTtlMs", "60000"));
+
+    /**
+     * Where per-endpoint latency/throughput metrics are written as JSON when the JVM exits.
+     * Set to an empty value to skip the export.
+     * Override with: -DapiMetricsFile=build/reports/api-metrics.json
+     * Default: build/api-metrics.json
+     */
+    public static final String API_METRICS_FILE = System.getProperty("apiMetricsFile", "build/api-metrics.json");
+
+    /**
+     * How many times ApiClient retries a request that failed transiently
+     * (429, 502, 503, 504 or an I/O error). Applies to GET, PUT and DELETE,
+     * and to POST/PATCH only when they carry an Idempotency-Key. 0 disables retries.
+     * Override with: -DapiRetries=2
+     * Default: 0
+     */
+    public static final int API_RETRIES = Integer.parseInt(System.getProperty("apiRetries", "0"));
+
+    /**
+     * Backoff ceiling for the first retry in milliseconds, doubled for each
+     * further retry; the actual wait is random between 0 and the ceiling.
+     * Override with: -DapiRetryBaseDelayMs=200
+     * Default: 100
+     */
+    public static final long API_RETRY_BASE_DELAY_MS = Long.parseLong(System.getProperty("apiRetryBaseDelayMs", "100"));
+
+    /**
+     * Longest single wait between retries in milliseconds. A Retry-After
+     * header asking for longer makes ApiClient return the response instead.
+     * Override with: -DapiRetryMaxDelayMs=10000
+     * Default: 5000
+     */
+    public static final long API_RETRY_MAX_DELAY_MS = Long.parseLong(System.getProperty("apiRetryMaxDelayMs", "5000"));
+
+    /**
+     * Retries allowed per request sent, across the whole JVM. 0.1 means retries
+     * can add at most ~10% extra load, however many requests fail.
+     * Override with: -DapiRetryBudgetRatio=0.2
+     * Default: 0.1
+     */
+    public static final double API_RETRY_BUDGET_RATIO =
+            Double.parseDouble(System.getProperty("apiRetryBudgetRatio", "0.1"));
+
+    /**
+     * Retries per second allowed regardless of traffic, so a quiet suite can
+     * still retry an occasional failure.
+     * Override with: -DapiRetryBudgetMinPerSec=5
+     * Default: 10
+     */
+    public static final int API_RETRY_BUDGET_MIN_PER_SEC =
+            Integer.parseInt(System.getProperty("apiRetryBudgetMinPerSec", "10"));
+
+    /**
+     * Requests per second allowed to each API host, shared by every ApiClient
+     * in the JVM. 0 disables the host limit.
+     * Override with: -DapiRateLimit=50
+     * Default: 0 (unlimited)
+     */
+    public static final double API_RATE_LIMIT = Double.parseDouble(System.getProperty("apiRateLimit", "0"));
+
+    /**
+     * Largest burst of requests the rate limiter lets through at once after
+     * an idle period.
+     * Override with: -DapiRateBurst=1
+     * Default: 10
+     */
+    public static final int API_RATE_BURST = Integer.parseInt(System.getProperty("apiRateBurst", "10"));
+
+    /**
+     * Per-endpoint rate limits on top of the host limit, as comma-separated
+     * "METHOD /path-template=perSecond[:burst]" entries.
+     * Override with: -DapiRateLimitEndpoints="POST /users=5, GET /users/{id}=20:5"
+     * Default: none
+     */
+    public static final String API_RATE_LIMIT_ENDPOINTS = System.getProperty("apiRateLimitEndpoints", "");
+
+    /**
+     * Default deadline for ApiClient async calls in milliseconds. A call still
+     * running when it passes is aborted and its future fails with a
+     * TimeoutException. Per-call deadlines (getAsync(ep, Duration)) override it.
+     * Override with: -DapiAsyncDeadlineMs=15000
+     * Default: 0 (no deadline)
+     */
+    public static final long API_ASYNC_DEADLINE_MS = Long.parseLong(System.getProperty("apiAsyncDeadlineMs", "0"));
+
+    /**
+     * Classpath directory SchemaRegistry loads JSON schemas from
+     * (src/test/resources/schemas by default).
+     * Override with: -DapiSchemaDir=contracts/v2
+     * Default: schemas
+     */
+    public static final String API_SCHEMA_DIR = System.getProperty("apiSchemaDir", "schemas");
+
+    /**
+     * Negotiate compressed transfers: send "Accept-Encoding: gzip, deflate",
+     * decode compressed responses, and gzip large request bodies.
+     * Override with: -DapiCompression=true
+     * Default: false
+     */
+    public static final boolean API_COMPRESSION = Boolean.parseBoolean(System.getProperty("apiCompression", "false"));
+
+    /**
+     * Smallest request body, in bytes, sent gzipped when API_COMPRESSION is on.
+     * 0 never compresses request bodies.
+     * Override with: -DapiGzipMinBytes=4096
+     * Default: 1024
+     */
+    public static final int API_GZIP_MIN_BYTES = Integer.parseInt(System.getProperty("apiGzipMinBytes", "1024"));
+
+    /**
+     * Cassette mode for API traffic: "off" talks to the server, "record"
+     * talks to the server and saves every exchange to a cassette per base URL,
+     * "replay" answers from the saved cassettes without any network I/O.
+     * Override with: -DapiCassette=replay
+     * Default: off
+     */
+    public static final String API_CASSETTE = System.getProperty("apiCassette", "off");
+
+    /**
+     * Directory cassettes are written to and replayed from.
+     * Override with: -DapiCassetteDir=build/cassettes
+     * Default: src/test/resources/cassettes
+     */
+    public static final String API_CASSETTE_DIR = System.getProperty("apiCassetteDir", "src/test/resources/cassettes");
+
+    /**
+     * How replayed requests are matched to recorded ones: "strict" compares
+     * method, path with query string and request body; "lenient" compares
+     * method and path only, ignoring the body and query parameter order.
+     * Override with: -DapiCassetteMatch=lenient
+     * Default: strict
+     */
+    public static final String API_CASSETTE_MATCH = System.getProperty("apiCassetteMatch", "strict");
+
+    /**
+     * Point ApiClients created without a base URL at the in-process StubServer
+     * instead of API_BASE_URL, so API tests run without network access.
+     * Override with: -DapiStub=true
+     * Default: false
+     */
+    public static final boolean API_STUB = Boolean.parseBoolean(System.getProperty("apiStub", "false"));
+
+    /**
+     * Delay the shared StubServer adds to every response, in milliseconds.
+     * Override with: -DapiStubLatencyMs=50
+     * Default: 0
+     */
+    public static final long API_STUB_LATENCY_MS = Long.parseLong(System.getProperty("apiStubLatencyMs", "0"));
+
+    /**
+     * Fraction of requests the shared StubServer fails with 503.
+     * Override with: -DapiStubErrorRate=0.05
+     * Default: 0
+     */
+    public static final double API_STUB_ERROR_RATE = Double.parseDouble(System.getProperty("apiStubErrorRate", "0"));
+
+    /**
+     * Elements per page for paginated list scans (UserApi.streamUsersPaged()).
+     * Override with: -DapiPageSize=500
+     * Default: 100
+     */
+    public static final int API_PAGE_SIZE = Integer.parseInt(System.getProperty("apiPageSize", "100"));
+
+    /**
+     * Pages requested ahead of the one being consumed during paginated scans;
+     * memory holds at most this many pages plus one.
+     * Override with: -DapiPagePrefetch=4
+     * Default: 2
+     */
+    public static final int API_PAGE_PREFETCH = Integer.parseInt(System.getProperty("apiPagePrefetch", "2"));
+
+    /**
+     * Posts calls UserApi.getUsersWithPosts() keeps in flight at once.
+     * Override with: -DapiFanOutConcurrency=16
+     * Default: 8
+     */
+    public static final int API_FAN_OUT_CONCURRENCY = Integer.parseInt(System.getProperty("apiFanOutConcurrency", "8"));
+}
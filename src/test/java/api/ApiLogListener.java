@@ -0,0 +1,23 @@
+package api;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener that prints ApiClient's buffered request/response log
+ * only for tests that fail.
+ *
+ * - Before each test: clears the thread's buffer so a dump only shows the
+ *   exchanges made by that test
+ * - On failure (including assertion errors): prints the buffered exchanges
+ *
+ * Registered in testng.xml, testng-api.xml and testng-regression.xml.
+ */
+public class ApiLogListener implements ITestListener {
+
+    @Override
+    public void onTestStart(ITestResult result) { ApiLog.clear(); }
+
+    @Override
+    public void onTestFailure(ITestResult result) { ApiLog.dump(System.out); }
+}
@@ -0,0 +1,59 @@
+package api;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Unit tests for ApiMetrics: path normalization, per-endpoint aggregation and JSON export.
+ */
+public class ApiMetricsTest {
+
+    @Test
+    public void normalizesIdsInPaths() {
+        Assert.assertEquals(ApiMetrics.template("/users/7"), "/users/{id}");
+        Assert.assertEquals(ApiMetrics.template("/users/7/posts?_limit=5"), "/users/{id}/posts");
+        Assert.assertEquals(ApiMetrics.template("/orders/3f2b8c1e-9a4d-4c6e-8f7a-1b2c3d4e5f60"), "/orders/{id}");
+        Assert.assertEquals(ApiMetrics.template("/users"), "/users");
+        Assert.assertEquals(ApiMetrics.template("/users/"), "/users/");
+        Assert.assertEquals(ApiMetrics.template("/v2/users"), "/v2/users");
+    }
+
+    @Test
+    public void aggregatesByMethodAndTemplate() {
+        ApiMetrics metrics = new ApiMetrics();
+        metrics.record("GET", "/users/1", TimeUnit.MILLISECONDS.toNanos(10), false);
+        metrics.record("GET", "/users/2", TimeUnit.MILLISECONDS.toNanos(20), true);
+        metrics.record("DELETE", "/users/3", TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        List<ApiMetrics.EndpointSnapshot> snapshot = metrics.snapshot();
+        Assert.assertEquals(snapshot.size(), 2);
+        ApiMetrics.EndpointSnapshot get = snapshot.stream().filter(e -> e.method().equals("GET")).findFirst().orElseThrow();
+        Assert.assertEquals(get.endpoint(), "/users/{id}");
+        Assert.assertEquals(get.count(), 2);
+        Assert.assertEquals(get.errors(), 1);
+        Assert.assertEquals(get.maxMs(), 20.0);
+    }
+
+    @Test
+    public void writesJsonReport() throws Exception {
+        ApiMetrics metrics = new ApiMetrics();
+        metrics.record("GET", "/users", TimeUnit.MILLISECONDS.toNanos(3), false);
+        Path file = Files.createTempDirectory("api-metrics").resolve("nested/metrics.json");
+
+        metrics.writeJson(file);
+
+        JsonObject report = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        JsonObject users = report.getAsJsonArray("endpoints").get(0).getAsJsonObject();
+        Assert.assertEquals(users.get("endpoint").getAsString(), "/users");
+        Assert.assertEquals(users.get("count").getAsLong(), 1);
+        Assert.assertTrue(report.has("generatedAt"));
+    }
+}
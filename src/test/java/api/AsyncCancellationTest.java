@@ -0,0 +1,140 @@
+package api;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for async cancellation and deadlines: a blocking in-memory
+ * transport that reports when it is interrupted, and JdkHttpTransport against
+ * an in-process stub that never answers.
+ */
+public class AsyncCancellationTest {
+
+    private TestServer server;
+    private String baseUrl;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void startStub() {
+        server = TestServer.start("/hang", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        baseUrl = server.baseUrl();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void stopStub() {
+        release.countDown();
+        server.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void cancelInterruptsBlockingCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        HttpTransport blocking = blocking(started, interrupted);
+
+        CompletableFuture<Response> call = blocking.executeAsync(ApiRequest.get("/slow"), executor);
+        Assert.assertTrue(started.await(2, TimeUnit.SECONDS));
+        call.cancel(true);
+
+        Assert.assertTrue(interrupted.await(2, TimeUnit.SECONDS), "Blocked thread was not interrupted");
+        Assert.assertTrue(call.isCancelled());
+    }
+
+    @Test
+    public void deadlineFailsWithTimeoutAndFreesThread() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        HttpTransport blocking = blocking(started, interrupted);
+
+        CompletableFuture<Response> call = blocking.executeAsync(ApiRequest.get("/slow"), executor)
+                .orTimeout(100, TimeUnit.MILLISECONDS);
+
+        CompletionException e = Assert.expectThrows(CompletionException.class, call::join);
+        Assert.assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+        Assert.assertTrue(interrupted.await(2, TimeUnit.SECONDS), "Blocked thread was not interrupted");
+    }
+
+    @Test
+    public void cancellingRetryingTransportCancelsCurrentAttempt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        RetryPolicy policy = new RetryPolicy(3, 0, 0, new RetryPolicy.Budget(0.1, 10));
+        HttpTransport transport = new RetryingTransport(blocking(started, interrupted), policy);
+
+        CompletableFuture<Response> call = transport.executeAsync(ApiRequest.get("/slow"), executor);
+        Assert.assertTrue(started.await(2, TimeUnit.SECONDS));
+        call.cancel(true);
+
+        Assert.assertTrue(interrupted.await(2, TimeUnit.SECONDS), "Attempt was not cancelled");
+    }
+
+    @Test
+    public void jdkTransportDeadlineAbortsHangingExchange() {
+        try (JdkHttpTransport jdk = new JdkHttpTransport(baseUrl)) {
+            long start = System.nanoTime();
+            CompletableFuture<Response> call = jdk.executeAsync(ApiRequest.get("/hang"), executor)
+                    .orTimeout(200, TimeUnit.MILLISECONDS);
+
+            CompletionException e = Assert.expectThrows(CompletionException.class, call::join);
+            Assert.assertTrue(e.getCause() instanceof TimeoutException, String.valueOf(e.getCause()));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        }
+    }
+
+    @Test
+    public void cancelledQueuedCallNeverRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            single.execute(() -> { try { started.await(); } catch (InterruptedException ignored) { } });
+            HttpTransport failing = r -> { throw new AssertionError("cancelled call was sent"); };
+
+            CompletableFuture<Response> call = failing.executeAsync(ApiRequest.get("/users"), single);
+            call.cancel(true);
+            started.countDown();
+
+            Assert.expectThrows(CancellationException.class, call::join);
+            single.shutdown();
+            Assert.assertTrue(single.awaitTermination(2, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    /** A transport that blocks until interrupted, counting down the latches on entry and on interrupt. */
+    private static HttpTransport blocking(CountDownLatch started, CountDownLatch interrupted) {
+        return r -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+                throw new AssertionError("not interrupted");
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new CancellationException("interrupted");
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for Cassette and CassetteTransport. The "server" is a lambda
+ * transport that numbers its responses, so a replayed response can be told
+ * apart from a live one and the test never touches the network.
+ */
+public class CassetteTest {
+
+    private final AtomicInteger served = new AtomicInteger();
+    private final HttpTransport server = request -> new ResponseBuilder()
+            .setStatusCode("POST".equals(request.method()) ? 201 : 200)
+            .setStatusLine("HTTP/1.1 200")
+            .setContentType("application/json")
+            .setHeader("Content-Encoding", "gzip")
+            .setBody("{\"call\":" + served.incrementAndGet() + ",\"path\":\"" + request.path() + "\"}")
+            .build();
+
+    private Path dir;
+
+    @BeforeClass
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("cassettes");
+    }
+
+    @BeforeMethod
+    public void resetServer() {
+        served.set(0);
+    }
+
+    @Test
+    public void replaysRecordedExchangesInOrderWithoutTheServer() {
+        Path file = dir.resolve("strict.cassette");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "Alice");
+        body.put("email", "alice@example.com");
+        try (CassetteTransport recorder = CassetteTransport.recording(server, file)) {
+            recorder.execute(ApiRequest.get("/users/1"));
+            recorder.execute(ApiRequest.post("/users", body));
+            recorder.executeAsync(ApiRequest.get("/users/1"), Runnable::run).join();
+        }
+        Assert.assertEquals(served.get(), 3);
+
+        CassetteTransport replay = CassetteTransport.replaying(file, Cassette.Match.STRICT);
+        Response first = replay.execute(ApiRequest.get("/users/1"));
+        Assert.assertEquals(first.statusCode(), 200);
+        Assert.assertEquals(first.contentType(), "application/json");
+        Assert.assertNull(first.header("Content-Encoding"), "bodies are stored decoded");
+        Assert.assertEquals(first.asString(), "{\"call\":1,\"path\":\"/users/1\"}");
+        Assert.assertEquals(replay.executeAsync(ApiRequest.get("/users/1"), null).join().asString(),
+                "{\"call\":3,\"path\":\"/users/1\"}");
+        Assert.assertEquals(replay.execute(ApiRequest.get("/users/1")).asString(),
+                "{\"call\":3,\"path\":\"/users/1\"}", "the last recording repeats");
+
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("email", "alice@example.com");
+        reordered.put("name", "Alice");
+        Assert.assertEquals(replay.execute(ApiRequest.post("/users", reordered)).statusCode(), 201);
+        Assert.expectThrows(IllegalStateException.class,
+                () -> replay.execute(ApiRequest.post("/users", Map.of("name", "Bob"))));
+        Assert.expectThrows(IllegalStateException.class, () -> replay.execute(ApiRequest.get("/users/2")));
+        Assert.assertEquals(served.get(), 3, "replay never reaches the server");
+    }
+
+    @Test
+    public void lenientMatchingIgnoresBodyAndQueryOrder() {
+        Path file = dir.resolve("lenient.cassette");
+        try (CassetteTransport recorder = CassetteTransport.recording(server, file)) {
+            recorder.execute(ApiRequest.get("/posts?userId=1&_limit=5"));
+            recorder.execute(ApiRequest.post("/users", Map.of("name", "Alice")));
+        }
+
+        CassetteTransport lenient = CassetteTransport.replaying(file, Cassette.Match.LENIENT);
+        Assert.assertEquals(lenient.execute(ApiRequest.get("/posts?_limit=5&userId=1")).statusCode(), 200);
+        Assert.assertEquals(lenient.execute(ApiRequest.post("/users", Map.of("name", "Bob"))).statusCode(), 201);
+        Assert.expectThrows(IllegalStateException.class, () -> lenient.execute(ApiRequest.get("/posts?userId=2")));
+
+        Cassette cassette = Cassette.open(file);
+        Assert.assertEquals(cassette.size(), 2);
+        Assert.assertNull(cassette.find(ApiRequest.get("/posts?_limit=5&userId=1"), Cassette.Match.STRICT));
+    }
+
+    @Test
+    public void rejectsMissingAndForeignFiles() throws IOException {
+        Assert.expectThrows(IllegalStateException.class, () -> Cassette.open(dir.resolve("missing.cassette")));
+
+        Path foreign = Files.writeString(dir.resolve("foreign.cassette"), "{\"not\": \"a cassette\"}",
+                StandardCharsets.UTF_8);
+        Assert.expectThrows(IllegalStateException.class, () -> Cassette.open(foreign));
+    }
+
+    @Test
+    public void cassetteFileIsNamedAfterTheBaseUrl() {
+        Assert.assertEquals(CassetteTransport.file("https://jsonplaceholder.typicode.com/").getFileName().toString(),
+                "jsonplaceholder.typicode.com.cassette");
+        Assert.assertEquals(CassetteTransport.file("http://127.0.0.1:8089/api/v2").getFileName().toString(),
+                "127.0.0.1_8089_api_v2.cassette");
+    }
+}
@@ -0,0 +1,121 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for ClientRegistry — transports are lambdas that only count
+ * closes, so no HTTP is involved and no real connection pool is created.
+ */
+public class ClientRegistryTest {
+
+    private final AtomicInteger transportsCreated = new AtomicInteger();
+    private final AtomicInteger transportsClosed = new AtomicInteger();
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    private ClientRegistry registry() {
+        transportsCreated.set(0);
+        transportsClosed.set(0);
+        executors.clear();
+        return new ClientRegistry(baseUrl -> {
+            transportsCreated.incrementAndGet();
+            return new HttpTransport() {
+                @Override
+                public Response execute(ApiRequest request) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() { transportsClosed.incrementAndGet(); }
+            };
+        }, baseUrl -> {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            executors.add(executor);
+            return executor;
+        });
+    }
+
+    @Test
+    public void clientsOfOneBaseUrlShareTransportAndExecutor() {
+        ClientRegistry registry = registry();
+        try (ClientRegistry.Lease a = registry.acquire("http://a");
+             ClientRegistry.Lease b = registry.acquire("http://a");
+             ClientRegistry.Lease c = registry.acquire("http://c")) {
+
+            Assert.assertSame(a.transport(), b.transport());
+            Assert.assertSame(a.executor(), b.executor());
+            Assert.assertNotSame(a.transport(), c.transport());
+            Assert.assertEquals(transportsCreated.get(), 2);
+            Assert.assertEquals(registry.references("http://a"), 2);
+            Assert.assertEquals(registry.references("http://c"), 1);
+            Assert.assertEquals(registry.size(), 2);
+        }
+        Assert.assertEquals(registry.size(), 0);
+        Assert.assertEquals(transportsClosed.get(), 2);
+    }
+
+    @Test
+    public void lastReleaseClosesResourcesAndRepeatedCloseIsIgnored() {
+        ClientRegistry registry = registry();
+        ClientRegistry.Lease first = registry.acquire("http://a");
+        ClientRegistry.Lease second = registry.acquire("http://a");
+
+        first.close();
+        first.close();
+        Assert.assertEquals(registry.references("http://a"), 1);
+        Assert.assertEquals(transportsClosed.get(), 0);
+        Assert.assertFalse(second.executor().isShutdown());
+
+        second.close();
+        Assert.assertEquals(registry.references("http://a"), 0);
+        Assert.assertEquals(transportsClosed.get(), 1);
+        Assert.assertTrue(second.executor().isShutdown());
+
+        try (ClientRegistry.Lease again = registry.acquire("http://a")) {
+            Assert.assertNotSame(again.transport(), second.transport());
+            Assert.assertEquals(transportsCreated.get(), 2);
+        }
+    }
+
+    @Test
+    public void closingTheRegistryClosesEverythingAndOldLeasesBecomeNoOps() {
+        ClientRegistry registry = registry();
+        ClientRegistry.Lease old = registry.acquire("http://a");
+        registry.acquire("http://b");
+
+        registry.close();
+        Assert.assertEquals(registry.size(), 0);
+        Assert.assertEquals(transportsClosed.get(), 2);
+        Assert.assertTrue(executors.stream().allMatch(ExecutorService::isShutdown));
+
+        ClientRegistry.Lease fresh = registry.acquire("http://a");
+        old.close();
+        Assert.assertEquals(registry.references("http://a"), 1, "a stale lease must not release the new resources");
+        Assert.assertFalse(fresh.executor().isShutdown());
+        fresh.close();
+        Assert.assertEquals(transportsClosed.get(), 3);
+    }
+
+    @Test
+    public void apiClientsShareTheRegistryAndRejectCallsAfterShutdown() {
+        String baseUrl = "http://127.0.0.1:9/registry-test";
+        UserApi first = new UserApi(baseUrl);
+        UserApi second = new UserApi(baseUrl);
+        Assert.assertEquals(ClientRegistry.shared().references(baseUrl), 2);
+
+        first.shutdown();
+        Assert.assertEquals(ClientRegistry.shared().references(baseUrl), 1);
+        Assert.expectThrows(IllegalStateException.class, first::getUsers);
+
+        second.close();
+        Assert.assertEquals(ClientRegistry.shared().references(baseUrl), 0);
+    }
+}
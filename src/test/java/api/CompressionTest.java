@@ -0,0 +1,110 @@
+package api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for Compression and TransferStats: encoding round trips, and
+ * JdkHttpTransport decoding a gzip body from an in-process stub.
+ */
+public class CompressionTest {
+
+    private static final String JSON = "[" + "{\"id\":1,\"name\":\"Leanne Graham\"},".repeat(200) + "{}]";
+
+    private TestServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startStub() {
+        server = TestServer.start("/users", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            TestServer.sendJson(exchange, Compression.gzip(JSON.getBytes(StandardCharsets.UTF_8)));
+        });
+        baseUrl = server.baseUrl();
+    }
+
+    @AfterClass
+    public void stopStub() {
+        server.close();
+    }
+
+    @Test
+    public void gzipRoundTrip() {
+        byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+        byte[] wire = Compression.gzip(json);
+
+        Assert.assertTrue(wire.length < json.length / 10, wire.length + " bytes");
+        Assert.assertEquals(Compression.decode(wire, "gzip"), json);
+        Assert.assertEquals(Compression.decode(wire, " X-GZIP "), json);
+    }
+
+    @Test
+    public void decodesZlibAndRawDeflate() throws IOException {
+        byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertEquals(Compression.decode(deflate(json, false), "deflate"), json);
+        Assert.assertEquals(Compression.decode(deflate(json, true), "deflate"), json);
+    }
+
+    @Test
+    public void leavesIdentityAndUnknownEncodingsAlone() {
+        byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+
+        Assert.assertSame(Compression.decode(json, null), json);
+        Assert.assertSame(Compression.decode(json, "identity"), json);
+        Assert.assertSame(Compression.decode(json, "br"), json);
+    }
+
+    @Test
+    public void respectsCallerSetContentEncoding() {
+        byte[] large = new byte[1 << 16];
+        Assert.assertFalse(Compression.shouldGzip(large, Map.of("content-encoding", "br")));
+    }
+
+    @Test
+    public void jdkTransportDecodesGzipAndCountsWireBytes() {
+        TransferStats stats = new TransferStats();
+        Response res;
+        try (JdkHttpTransport jdk = new JdkHttpTransport(baseUrl, stats)) {
+            res = jdk.execute(ApiRequest.get("/users"));
+        }
+        TransferStats.Snapshot s = stats.snapshot();
+
+        Assert.assertEquals(res.asString(), JSON);
+        Assert.assertNull(res.header("Content-Encoding"), "a decoded body is no longer labelled gzip");
+        Assert.assertEquals(res.header("Content-Length"), String.valueOf(JSON.length()));
+        Assert.assertEquals(s.responses(), 1);
+        Assert.assertEquals(s.responseBytes(), JSON.length());
+        Assert.assertEquals(s.responseWireBytes(), Compression.gzip(JSON.getBytes(StandardCharsets.UTF_8)).length);
+    }
+
+    @Test
+    public void snapshotReportsSavings() {
+        TransferStats stats = new TransferStats();
+        stats.recordRequest(2_000, 500);
+        stats.recordResponse(10_000, 1_000);
+
+        TransferStats.Snapshot s = stats.snapshot();
+        Assert.assertEquals(s.savedBytes(), 10_500);
+        Assert.assertEquals(s.responseSavedPercent(), 90.0, 0.001);
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream d = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            d.write(data);
+        }
+        return out.toByteArray();
+    }
+}
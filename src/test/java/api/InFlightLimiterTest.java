@@ -0,0 +1,105 @@
+package api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for InFlightLimiter — no HTTP involved, calls are plain suppliers
+ * held open with a latch so the counters can be observed mid-flight.
+ */
+public class InFlightLimiterTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterClass
+    public void tearDown() { executor.shutdownNow(); }
+
+    @Test
+    public void rejectsSubmissionsBeyondLimitAndTracksCounts() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(2, InFlightLimiter.Overflow.REJECT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = limiter.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }, executor);
+        CompletableFuture<String> second = limiter.submit(() -> "second", executor);
+        CompletableFuture<String> third = limiter.submit(() -> "third", executor);
+
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(limiter.getInFlightCount(), 1);
+        Assert.assertEquals(limiter.getQueueDepth(), 1);
+        Assert.assertTrue(third.isCompletedExceptionally());
+        Assert.expectThrows(RejectedExecutionException.class, () -> unwrap(third));
+
+        release.countDown();
+        Assert.assertEquals(first.get(5, TimeUnit.SECONDS), "first");
+        Assert.assertEquals(second.get(5, TimeUnit.SECONDS), "second");
+        Assert.assertEquals(limiter.getInFlightCount(), 0);
+        Assert.assertEquals(limiter.getQueueDepth(), 0);
+        Assert.assertEquals(limiter.submit(() -> "again", executor).get(5, TimeUnit.SECONDS), "again");
+    }
+
+    @Test
+    public void cancelledQueuedCallReturnsItsPermit() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(2, InFlightLimiter.Overflow.REJECT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> blocker = limiter.submit(() -> {
+            started.countDown();
+            await(release);
+            return "done";
+        }, executor);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = limiter.submit(() -> "never", executor);
+        queued.cancel(true);
+
+        Assert.assertEquals(limiter.getQueueDepth(), 0);
+        CompletableFuture<String> next = limiter.submit(() -> "next", executor);
+        Assert.assertFalse(next.isCompletedExceptionally());
+
+        release.countDown();
+        Assert.assertEquals(blocker.get(5, TimeUnit.SECONDS), "done");
+        Assert.assertEquals(next.get(5, TimeUnit.SECONDS), "next");
+    }
+
+    @Test
+    public void rejectingExecutorFailsTheFutureAndReturnsThePermit() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(1, InFlightLimiter.Overflow.REJECT);
+        CompletableFuture<String> rejected = limiter.submit(() -> "never", task -> {
+            throw new RejectedExecutionException("shut down");
+        });
+
+        Assert.assertTrue(rejected.isCompletedExceptionally());
+        Assert.expectThrows(RejectedExecutionException.class, () -> unwrap(rejected));
+        Assert.assertEquals(limiter.getQueueDepth(), 0);
+        Assert.assertEquals(limiter.submit(() -> "next", executor).get(5, TimeUnit.SECONDS), "next");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void unwrap(CompletableFuture<?> future) throws Throwable {
+        try {
+            future.join();
+        } catch (java.util.concurrent.CompletionException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package api;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Unit tests for JsonArrayStream — parsing runs against in-memory bodies,
+ * no HTTP involved.
+ */
+public class JsonArrayStreamTest {
+
+    private static final String USERS = """
+            [{"id":1,"name":"Leanne","address":{"city":"Gwenborough"}},
+             {"id":2,"name":"Ervin","tags":["a","b"]},
+             {"id":3,"name":"Clementine"}]
+            """;
+
+    record User(int id, String name) { }
+
+    @Test
+    public void bindsElementsLazilyInOrder() {
+        try (Stream<User> users = JsonArrayStream.of(body(USERS), User.class)) {
+            List<String> names = users.map(User::name).toList();
+            Assert.assertEquals(names, List.of("Leanne", "Ervin", "Clementine"));
+        }
+    }
+
+    @Test
+    public void countsWithoutBinding() {
+        Assert.assertEquals(JsonArrayStream.count(body(USERS)), 3);
+        Assert.assertEquals(JsonArrayStream.count(body("[]")), 0);
+    }
+
+    @Test
+    public void closingTheStreamClosesTheBody() {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream in = new ByteArrayInputStream(USERS.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() { closed.set(true); }
+        };
+        try (Stream<JsonObject> users = JsonArrayStream.of(in, JsonObject.class)) {
+            Assert.assertEquals(users.findFirst().orElseThrow().get("id").getAsInt(), 1);
+        }
+        Assert.assertTrue(closed.get());
+    }
+
+    @Test
+    public void rejectsNonArrayBody() {
+        Assert.expectThrows(IllegalStateException.class, () -> JsonArrayStream.of(body("{\"id\":1}"), User.class));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
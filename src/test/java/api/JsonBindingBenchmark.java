@@ -0,0 +1,71 @@
+package api;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Microbenchmark for reading fields out of a GET /users response.
+ *
+ * Compares the JsonPath style tests have used so far — one
+ * response.jsonPath().getString(...) per field, each re-parsing the body —
+ * against binding the body once into User records with JsonBinding. Both
+ * read the same three fields of every user. No HTTP traffic is sent; the
+ * response is canned.
+ *
+ * Reports time and bytes allocated per response, the latter from the JVM's
+ * per-thread allocation counter (com.sun.management.ThreadMXBean).
+ *
+ * Run with: ./gradlew benchmarks
+ */
+public class JsonBindingBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Defeats dead-code elimination. */
+    private int sink;
+
+    @Test
+    public void parseCostPerResponse() {
+        Response res = JsonBindingTest.response(200, JsonBindingTest.USERS);
+        int users = JsonBinding.list(res.asByteArray(), User.class).size();
+
+        Runnable jsonPath = () -> {
+            for (int i = 0; i < users; i++) {
+                sink += res.jsonPath().getString("[" + i + "].name").length()
+                        + res.jsonPath().getString("[" + i + "].username").length()
+                        + res.jsonPath().getString("[" + i + "].email").length();
+            }
+        };
+        Runnable typed = () -> {
+            List<User> list = JsonBinding.list(res.asByteArray(), User.class);
+            for (User u : list) sink += u.name().length() + u.username().length() + u.email().length();
+        };
+
+        measure(jsonPath, WARMUP);
+        measure(typed, WARMUP);
+        long[] before = measure(jsonPath, ITERATIONS);
+        long[] after = measure(typed, ITERATIONS);
+
+        System.out.printf("jsonPath().getString: %,8d ns  %,8d bytes per response%n",
+                before[0] / ITERATIONS, before[1] / ITERATIONS);
+        System.out.printf("JsonBinding.list    : %,8d ns  %,8d bytes per response%n",
+                after[0] / ITERATIONS, after[1] / ITERATIONS);
+    }
+
+    /** Runs the task n times and returns {elapsed nanos, bytes allocated by this thread}. */
+    private long[] measure(Runnable task, int n) {
+        long id = Thread.currentThread().threadId();
+        long bytes = threads.getThreadAllocatedBytes(id);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) task.run();
+        return new long[] { System.nanoTime() - start, threads.getThreadAllocatedBytes(id) - bytes };
+    }
+}
@@ -0,0 +1,87 @@
+package api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonParseException;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for JsonBinding and TypedResponse against canned bodies shaped
+ * like the User API's — no server.
+ */
+public class JsonBindingTest {
+
+    static final String USERS = """
+            [
+              {"id": 1, "name": "Leanne Graham", "username": "Bret", "email": "Sincere@april.biz",
+               "address": {"street": "Kulas Light", "suite": "Apt. 556", "city": "Gwenborough",
+                           "zipcode": "92998-3874", "geo": {"lat": "-37.3159", "lng": "81.1496"}},
+               "phone": "1-770-736-8031 x56442", "website": "hildegard.org",
+               "company": {"name": "Romaguera-Crona", "catchPhrase": "Multi-layered client-server neural-net",
+                           "bs": "harness real-time e-markets"}},
+              {"id": 2, "name": "Ervin Howell", "username": "Antonette", "email": "Shanna@melissa.tv"}
+            ]
+            """;
+
+    @Test
+    public void bindsArrayOfRecordsIgnoringUnknownFields() {
+        List<User> users = JsonBinding.list(bytes(USERS), User.class);
+
+        Assert.assertEquals(users.size(), 2);
+        User first = users.get(0);
+        Assert.assertEquals(first.id(), 1);
+        Assert.assertEquals(first.username(), "Bret");
+        Assert.assertEquals(first.address().city(), "Gwenborough");
+        Assert.assertEquals(first.company().name(), "Romaguera-Crona");
+        Assert.assertNull(users.get(1).address());
+    }
+
+    @Test
+    public void bindsSingleObjectAndEmptyBodies() {
+        Post post = JsonBinding.one(bytes("{\"userId\": 1, \"id\": 3, \"title\": \"t\", \"body\": \"b\"}"), Post.class);
+
+        Assert.assertEquals(post, new Post(1, 3, "t", "b"));
+        Assert.assertNull(JsonBinding.one(new byte[0], Post.class));
+        Assert.assertTrue(JsonBinding.list(new byte[0], Post.class).isEmpty());
+    }
+
+    @Test
+    public void rejectsBodiesOfTheWrongShape() {
+        Assert.expectThrows(JsonParseException.class, () -> JsonBinding.list(bytes("{\"id\": 1}"), User.class));
+        Assert.expectThrows(JsonParseException.class, () -> JsonBinding.one(bytes("[1, 2]"), User.class));
+        Assert.expectThrows(JsonParseException.class, () -> JsonBinding.one(bytes("{\"id\": "), User.class));
+    }
+
+    @Test
+    public void typedResponseBindsLazilyOnce() {
+        AtomicInteger binds = new AtomicInteger();
+        TypedResponse<List<User>> typed = new TypedResponse<>(response(200, USERS), body -> {
+            binds.incrementAndGet();
+            return JsonBinding.list(body, User.class);
+        });
+
+        Assert.assertEquals(typed.statusCode(), 200);
+        Assert.assertEquals(binds.get(), 0);
+        Assert.assertSame(typed.body(), typed.body());
+        Assert.assertEquals(binds.get(), 1);
+        Assert.assertEquals(typed.response().asString(), USERS);
+    }
+
+    static Response response(int status, String body) {
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+
+    private static byte[] bytes(String json) { return json.getBytes(StandardCharsets.UTF_8); }
+}
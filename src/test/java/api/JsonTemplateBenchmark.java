@@ -0,0 +1,64 @@
+package api;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * Microbenchmark for building POST /users bodies.
+ *
+ * Compares the generic path — a fresh Map per user, serialized by an object
+ * mapper (Gson, as JdkHttpTransport does) — against UserApi.NEW_USER, which
+ * copies cached byte segments and writes only the three values. No HTTP
+ * traffic is sent.
+ *
+ * Reports time and bytes allocated per body, the latter from the JVM's
+ * per-thread allocation counter (com.sun.management.ThreadMXBean).
+ *
+ * Run with: ./gradlew benchmarks
+ */
+public class JsonTemplateBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Defeats dead-code elimination. */
+    private long sink;
+
+    @Test
+    public void serializationCostPerUser() {
+        Body mapped = i -> {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("name", "User " + i);
+            user.put("username", "user" + i);
+            user.put("email", "user" + i + "@example.com");
+            return Compression.toBytes(user);
+        };
+        Body templated = i -> UserApi.NEW_USER.render("User " + i, "user" + i, "user" + i + "@example.com");
+
+        measure(mapped, WARMUP);
+        measure(templated, WARMUP);
+        long[] before = measure(mapped, ITERATIONS);
+        long[] after = measure(templated, ITERATIONS);
+
+        System.out.printf("Map + Gson       : %,6d ns  %,6d bytes per body%n", before[0] / ITERATIONS, before[1] / ITERATIONS);
+        System.out.printf("JsonTemplate     : %,6d ns  %,6d bytes per body%n", after[0] / ITERATIONS, after[1] / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Body { byte[] build(int i); }
+
+    /** Builds n bodies and returns {elapsed nanos, bytes allocated by this thread}. */
+    private long[] measure(Body body, int n) {
+        long id = Thread.currentThread().threadId();
+        long bytes = threads.getThreadAllocatedBytes(id);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) sink += body.build(i).length;
+        return new long[] { System.nanoTime() - start, threads.getThreadAllocatedBytes(id) - bytes };
+    }
+}
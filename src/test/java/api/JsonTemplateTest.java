@@ -0,0 +1,79 @@
+package api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Unit tests for JsonTemplate rendering and pre-serialized request bodies.
+ */
+public class JsonTemplateTest {
+
+    @Test
+    public void rendersPositionalValuesIntoCachedLayout() {
+        byte[] body = UserApi.NEW_USER.render("Alice", "alice", "alice@example.com");
+
+        Assert.assertEquals(new String(body, StandardCharsets.UTF_8),
+                "{\"name\": \"Alice\", \"username\": \"alice\", \"email\": \"alice@example.com\"}");
+        Assert.assertEquals(UserApi.NEW_USER.names(), List.of("name", "username", "email"));
+    }
+
+    @Test
+    public void rendersEveryValueTypeAsValidJson() {
+        JsonTemplate t = JsonTemplate.compile("{\"s\": ${s}, \"i\": ${i}, \"d\": ${d}, \"b\": ${b}, \"n\": ${n},"
+                + " \"tags\": ${tags}, \"again\": ${s}}");
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("s", "quote \" backslash \\ newline \n ünïcødé");
+        values.put("i", 42L);
+        values.put("d", 1.5);
+        values.put("b", true);
+        values.put("n", null);
+        values.put("tags", List.of("a", "b"));
+
+        JsonObject json = JsonParser.parseString(new String(t.render(values), StandardCharsets.UTF_8)).getAsJsonObject();
+
+        Assert.assertEquals(json.get("s").getAsString(), values.get("s"));
+        Assert.assertEquals(json.get("again").getAsString(), values.get("s"));
+        Assert.assertEquals(json.get("i").getAsLong(), 42L);
+        Assert.assertEquals(json.get("d").getAsDouble(), 1.5);
+        Assert.assertTrue(json.get("b").getAsBoolean());
+        Assert.assertTrue(json.get("n").isJsonNull());
+        Assert.assertEquals(json.getAsJsonArray("tags").size(), 2);
+        Assert.assertEquals(t.names(), List.of("s", "i", "d", "b", "n", "tags"));
+    }
+
+    @Test
+    public void rejectsBadTemplatesAndValues() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> JsonTemplate.compile("{\"name\": \"${name}\"}"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> JsonTemplate.compile("{\"name\": \"Dr. ${name}\"}"));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> JsonTemplate.compile("{\"note\": \"say \\\"hi\\\" to ${name}\"}"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> JsonTemplate.compile("{${key}: 1}"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> JsonTemplate.compile("{\"name\": ${name}"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> JsonTemplate.compile("{\"name\": ${name}} x"));
+        Assert.assertEquals(JsonTemplate.compile("{\"a\\\"\": \"}\", \"b\": ${b}}").names(), List.of("b"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> UserApi.NEW_USER.render("only one"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> UserApi.NEW_USER.render(Map.of("name", "x")));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> JsonTemplate.compile("{\"d\": ${d}}").render(Double.NaN));
+    }
+
+    @Test
+    public void byteBufferBodiesAreSentFromTheirPosition() {
+        byte[] json = "xx{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(json);
+        buffer.position(2);
+
+        Assert.assertEquals(new String(Compression.toBytes(buffer), StandardCharsets.UTF_8), "{\"id\": 1}");
+        Assert.assertEquals(buffer.position(), 2);
+        Assert.assertSame(Compression.toBytes(ByteBuffer.wrap(json)), json);
+    }
+}
@@ -0,0 +1,56 @@
+package api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for LatencyHistogram's bucketing and percentiles.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void everyValueFallsInsideItsBucket() {
+        for (long v : new long[] {0, 1, 31, 32, 33, 47, 48, 1_000, 123_456, 1L << 40, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(v);
+            Assert.assertTrue(LatencyHistogram.upperBound(bucket) >= v, "upper bound below " + v);
+            if (bucket > 0) Assert.assertTrue(LatencyHistogram.upperBound(bucket - 1) < v, "previous bucket holds " + v);
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) h.record(i);
+        LatencyHistogram.Snapshot s = h.snapshot();
+
+        Assert.assertEquals(s.count(), 10_000);
+        Assert.assertEquals(s.max(), 10_000);
+        Assert.assertEquals(s.mean(), 5_000.5, 0.001);
+        assertWithin(s.percentile(50), 5_000);
+        assertWithin(s.percentile(90), 9_000);
+        assertWithin(s.percentile(99), 9_900);
+        Assert.assertEquals(s.percentile(100), 10_000);
+    }
+
+    @Test
+    public void concurrentRecordsAreNotLost() throws InterruptedException {
+        LatencyHistogram h = new LatencyHistogram();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            threads.execute(() -> { for (int i = 0; i < 100_000; i++) h.record(i % 5_000); });
+        }
+        threads.shutdown();
+        Assert.assertTrue(threads.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(h.snapshot().count(), 800_000);
+    }
+
+    /** Percentiles report a bucket's upper bound: never below the true value, at most ~6% above. */
+    private static void assertWithin(long actual, long expected) {
+        Assert.assertTrue(actual >= expected && actual <= expected * 1.07,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
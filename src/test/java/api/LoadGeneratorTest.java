@@ -0,0 +1,78 @@
+package api;
+
+import java.time.Duration;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for LoadGenerator and LoadProfile with in-memory calls that
+ * sleep to simulate server latency.
+ */
+public class LoadGeneratorTest {
+
+    @Test
+    public void slowResponsesDoNotReduceOfferedLoad() {
+        LoadGenerator.Report report = new LoadGenerator(LoadProfile.constant(100), Duration.ofMillis(500))
+                .call("slow", 1, () -> respond(200, 200))
+                .run();
+
+        LoadGenerator.Result slow = report.results().get(0);
+        Assert.assertEquals(report.offered(), 50);
+        Assert.assertEquals(slow.requests(), 50);
+        Assert.assertEquals(report.dropped(), 0);
+        Assert.assertTrue(slow.latency().percentile(50) >= 200_000, "p50 " + slow.latency().percentile(50));
+        Assert.assertTrue(report.elapsed().toMillis() < 1_500, "closed-model pacing would take ~10 s");
+    }
+
+    @Test
+    public void splitsArrivalsByWeightAndCountsErrors() {
+        LoadGenerator.Report report = new LoadGenerator(LoadProfile.constant(400), Duration.ofMillis(100))
+                .call("list", 3, () -> respond(0, 200))
+                .call("broken", 1, () -> respond(0, 503))
+                .run();
+
+        Assert.assertEquals(report.offered(), 40);
+        Assert.assertEquals(report.results().get(0).requests(), 30);
+        Assert.assertEquals(report.results().get(1).requests(), 10);
+        Assert.assertEquals(report.results().get(1).errors(), 10);
+        Assert.assertTrue(report.format().contains("broken"));
+    }
+
+    @Test
+    public void dropsArrivalsBeyondMaxOutstanding() {
+        LoadGenerator.Report report = new LoadGenerator(LoadProfile.constant(100), Duration.ofMillis(200))
+                .maxOutstanding(1)
+                .call("hung", 1, () -> respond(500, 200))
+                .run();
+
+        Assert.assertEquals(report.offered(), 20);
+        Assert.assertEquals(report.dropped(), 19);
+    }
+
+    @Test
+    public void profilesShapeTheRate() {
+        LoadProfile ramp = LoadProfile.ramp(10, 110, Duration.ofSeconds(10));
+        Assert.assertEquals(ramp.rateAt(0), 10.0);
+        Assert.assertEquals(ramp.rateAt(5), 60.0);
+        Assert.assertEquals(ramp.rateAt(60), 110.0);
+
+        LoadProfile steps = LoadProfile.steps(20, 20, Duration.ofSeconds(30));
+        Assert.assertEquals(steps.rateAt(29.9), 20.0);
+        Assert.assertEquals(steps.rateAt(30), 40.0);
+        Assert.assertEquals(steps.rateAt(95), 80.0);
+    }
+
+    /** Sleeps to simulate server time, then returns an empty response with the status. */
+    private static Response respond(long millis, int status) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ResponseBuilder().setStatusCode(status).setStatusLine("HTTP/1.1 " + status).setBody("").build();
+    }
+}
@@ -0,0 +1,106 @@
+package api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for PageIterator against a StubServer holding 95 users, so a scan in
+ * pages of 10 ends on a short page.
+ */
+public class PageIteratorTest {
+
+    private static final int USERS = 95;
+
+    private StubServer stub;
+    private UserApi api;
+
+    @BeforeClass
+    public void start() {
+        stub = StubServer.start(0, USERS);
+        api = new UserApi(stub.baseUrl());
+    }
+
+    @AfterClass
+    public void stop() {
+        api.shutdown();
+        stub.close();
+    }
+
+    @Test
+    public void streamsEveryUserOnceInOrder() {
+        stub.reset();
+        try (Stream<User> users = api.streamUsersPaged(10)) {
+            Assert.assertEquals(users.map(User::id).collect(Collectors.toList()),
+                    IntStream.rangeClosed(1, USERS).boxed().collect(Collectors.toList()));
+        }
+        Assert.assertEquals(stub.requests(), 10, "X-Total-Count stops requests past the last page");
+    }
+
+    @Test
+    public void prefetchOverlapsPageRequests() {
+        stub.reset();
+        stub.setLatency(Duration.ofMillis(40), Duration.ofMillis(40));
+        long sequential = scan(0);
+        long prefetched = scan(4);
+        stub.reset();
+
+        Assert.assertTrue(prefetched < sequential * 0.75, prefetched + " ms vs " + sequential + " ms");
+    }
+
+    @Test
+    public void boundsAndCancelsPagesInFlight() {
+        stub.reset();
+        stub.setLatency(Duration.ofMillis(20), Duration.ofMillis(20));
+        PageIterator<User> pages;
+        try (PageIterator<User> opened = api.getPages("/users", User.class, 10, 3)) {
+            pages = opened;
+            Assert.assertEquals(pages.next().size(), 10);
+            Assert.assertTrue(pages.pagesInFlight() <= 3, String.valueOf(pages.pagesInFlight()));
+        } finally {
+            stub.reset();
+        }
+        Assert.assertEquals(pages.pagesInFlight(), 0, "closing cancels the pages in flight");
+        Assert.assertFalse(pages.hasNext());
+    }
+
+    @Test
+    public void failedPageEndsTheScan() {
+        stub.reset();
+        try (PageIterator<User> pages = api.getPages("/users", User.class, 10, 0)) {
+            Assert.assertEquals(pages.next().get(0).id(), 1);
+            stub.failNext(1, 500);
+            Assert.expectThrows(IllegalStateException.class, pages::hasNext);
+            Assert.assertFalse(pages.hasNext());
+        }
+    }
+
+    @Test
+    public void handlesEmptyAndExactlyFullLastPages() {
+        try (PageIterator<Post> pages = api.getPages("/users/" + (USERS + 1) + "/posts", Post.class, 10, 2)) {
+            Assert.assertFalse(pages.hasNext());
+        }
+        try (PageIterator<Post> pages = api.getPages("/users/3/posts", Post.class, 5, 2)) {
+            List<Post> posts = pages.stream().toList();
+            Assert.assertEquals(posts.size(), StubServer.POSTS_PER_USER);
+            Assert.assertEquals(posts.get(0).id(), 21);
+        }
+    }
+
+    /** @return milliseconds to read all users in pages of 10 with the given prefetch */
+    private long scan(int prefetch) {
+        long start = System.nanoTime();
+        try (PageIterator<User> pages = api.getPages("/users", User.class, 10, prefetch)) {
+            Assert.assertEquals(pages.stream().count(), USERS);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
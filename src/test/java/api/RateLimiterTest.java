@@ -0,0 +1,73 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for RateLimiter, RateLimits and RateLimitedTransport — an
+ * in-memory transport, real clock.
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void burstIsFreeThenPermitsAreSpacedAtTheRate() {
+        RateLimiter limiter = new RateLimiter(100, 5);
+        for (int i = 0; i < 5; i++) Assert.assertEquals(limiter.reserve(), 0);
+
+        long sixth = limiter.reserve();
+        long seventh = limiter.reserve();
+
+        Assert.assertTrue(sixth > TimeUnit.MILLISECONDS.toNanos(5) && sixth <= TimeUnit.MILLISECONDS.toNanos(10), "sixth: " + sixth);
+        Assert.assertTrue(seventh - sixth > TimeUnit.MILLISECONDS.toNanos(8), "spacing: " + (seventh - sixth));
+        Assert.assertEquals(limiter.throttledCount(), 2);
+    }
+
+    @Test
+    public void endpointLimitAppliesOnTopOfHostLimit() {
+        RateLimits limits = new RateLimits(0, 1, RateLimits.parseEndpointRules("POST /users=1:1, get /users/{id}=1000", 1));
+
+        Assert.assertEquals(limits.reserve("api.test", "POST", "/users"), 0);
+        Assert.assertTrue(limits.reserve("api.test", "POST", "/users") > TimeUnit.MILLISECONDS.toNanos(900));
+        Assert.assertEquals(limits.reserve("api.test", "GET", "/users"), 0);
+        Assert.assertEquals(limits.reserve("other.test", "POST", "/users"), 0);   // buckets are per host
+        Assert.assertTrue(limits.hostLimiter("api.test").isEmpty());
+    }
+
+    @Test
+    public void rejectsMalformedEndpointRules() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> RateLimits.parseEndpointRules("/users=5", 1));
+    }
+
+    @Test
+    public void asyncRequestsLeaveAtTheConfiguredRate() {
+        RateLimits limits = new RateLimits(0, 1, List.of());
+        limits.setHostLimit("api.test", 200, 1);
+        List<Long> sentAt = new ArrayList<>();
+        HttpTransport recorder = r -> {
+            synchronized (sentAt) { sentAt.add(System.nanoTime()); }
+            return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200").setBody("").build();
+        };
+        HttpTransport transport = new RateLimitedTransport(recorder, "http://api.test", limits);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 21; i++) futures.add(transport.executeAsync(ApiRequest.get("/users"), executor));
+            futures.forEach(CompletableFuture::join);
+        }
+
+        long span = sentAt.stream().mapToLong(Long::longValue).max().orElseThrow()
+                - sentAt.stream().mapToLong(Long::longValue).min().orElseThrow();
+        // 20 intervals of 5 ms after the first, free permit.
+        Assert.assertTrue(span >= TimeUnit.MILLISECONDS.toNanos(90), "span " + TimeUnit.NANOSECONDS.toMillis(span) + " ms");
+    }
+}
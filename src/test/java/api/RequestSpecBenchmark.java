@@ -0,0 +1,71 @@
+package api;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import config.TestConfig;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Microbenchmark for ApiClient's request specification setup.
+ *
+ * Compares the bytes allocated per call by the original approach (building
+ * every setting onto RestAssured.given() from scratch) against the cached
+ * template that RestAssuredTransport merges in. No HTTP traffic is sent — only the
+ * spec construction is measured.
+ *
+ * Allocation is read from the JVM's per-thread allocation counter
+ * (com.sun.management.ThreadMXBean), so results are exact for the measuring
+ * thread and need no profiler.
+ *
+ * Run with: ./gradlew benchmarks
+ */
+public class RequestSpecBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.e30.signature";
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void allocationsPerRequestSpec() {
+        RestAssuredTransport transport = new RestAssuredTransport(TestConfig.API_BASE_URL);
+        Map<String, String> headers = Map.of("Authorization", "Bearer " + TOKEN);
+
+        Runnable before = () -> buildFromScratch(TOKEN);
+        Runnable after = () -> transport.spec(headers);
+
+        measure(before, WARMUP);
+        measure(after, WARMUP);
+        long beforeBytes = measure(before, ITERATIONS);
+        long afterBytes = measure(after, ITERATIONS);
+
+        System.out.printf("req() from scratch : %,d bytes/call%n", beforeBytes / ITERATIONS);
+        System.out.printf("req() from template: %,d bytes/call%n", afterBytes / ITERATIONS);
+    }
+
+    /** The original, pre-template ApiClient.req(), kept as the baseline. */
+    private static RequestSpecification buildFromScratch(String token) {
+        RequestSpecification spec = RestAssured.given()
+                .baseUri(TestConfig.API_BASE_URL)
+                .contentType(ContentType.JSON)
+                .accept(ContentType.JSON);
+        if (token != null && !token.isEmpty())
+            spec.header("Authorization", "Bearer " + token);
+        return spec.log().all();
+    }
+
+    /** Runs the task n times and returns the bytes allocated by this thread meanwhile. */
+    private long measure(Runnable task, int n) {
+        long id = Thread.currentThread().threadId();
+        long start = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < n; i++) task.run();
+        return threads.getThreadAllocatedBytes(id) - start;
+    }
+}
@@ -0,0 +1,130 @@
+package api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for CachingTransport and ResponseCache against an in-process stub
+ * that serves JSON with an ETag and answers If-None-Match with 304.
+ */
+public class ResponseCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private TestServer server;
+    private HttpTransport jdk;
+    private String baseUrl;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+
+    @BeforeClass
+    public void startStub() {
+        server = TestServer.start("/", exchange -> {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            TestServer.sendJson(exchange,
+                    ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}").getBytes(StandardCharsets.UTF_8));
+        });
+        baseUrl = server.baseUrl();
+        jdk = new JdkHttpTransport(baseUrl);
+    }
+
+    @AfterClass
+    public void stopStub() {
+        jdk.close();
+        server.close();
+    }
+
+    @Test
+    public void freshEntryIsServedWithoutRequest() {
+        ResponseCache cache = new ResponseCache(1_000_000, 60_000);
+        HttpTransport transport = new CachingTransport(jdk, baseUrl, cache);
+        fullResponses.set(0);
+
+        Response first = transport.execute(ApiRequest.get("/users"));
+        Response second = transport.execute(ApiRequest.get("/users"));
+
+        Assert.assertEquals(second.jsonPath().getString("path"), "/users");
+        Assert.assertEquals(second.asString(), first.asString());
+        Assert.assertEquals(fullResponses.get(), 1);
+        Assert.assertEquals(cache.stats().hits(), 1);
+        Assert.assertEquals(cache.stats().misses(), 1);
+    }
+
+    @Test
+    public void staleEntryIsRevalidatedWithEtag() {
+        ResponseCache cache = new ResponseCache(1_000_000, 0);
+        HttpTransport transport = new CachingTransport(jdk, baseUrl, cache);
+        fullResponses.set(0);
+
+        transport.execute(ApiRequest.get("/users/1"));
+        Response revalidated = transport.executeAsync(ApiRequest.get("/users/1"), Runnable::run).join();
+
+        Assert.assertEquals(revalidated.statusCode(), 200);
+        Assert.assertEquals(revalidated.jsonPath().getString("path"), "/users/1");
+        Assert.assertEquals(fullResponses.get(), 1);
+        Assert.assertEquals(cache.stats().revalidations(), 1);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBeyondByteBound() {
+        int size = "{\"path\":\"/users/1\"}".length();
+        ResponseCache cache = new ResponseCache(2L * size, 60_000);
+        HttpTransport transport = new CachingTransport(jdk, baseUrl, cache);
+
+        transport.execute(ApiRequest.get("/users/1"));
+        transport.execute(ApiRequest.get("/users/2"));
+        transport.execute(ApiRequest.get("/users/1"));   // /users/2 is now least recently used
+        transport.execute(ApiRequest.get("/users/3"));
+
+        Assert.assertEquals(cache.stats().evictions(), 1);
+        Assert.assertEquals(cache.stats().entries(), 2);
+        Assert.assertEquals(cache.stats().bytes(), 2L * size);
+        Assert.assertNull(cache.lookup(new ResponseCache.Key(baseUrl, "/users/2", Map.of())));
+    }
+
+    @Test
+    public void writeInvalidatesCollection() {
+        ResponseCache cache = new ResponseCache(1_000_000, 60_000);
+        HttpTransport transport = new CachingTransport(jdk, baseUrl, cache);
+        fullResponses.set(0);
+
+        transport.execute(ApiRequest.get("/users"));
+        transport.execute(ApiRequest.get("/posts"));
+        transport.execute(ApiRequest.put("/users/7", Map.of("name", "x")));
+        transport.execute(ApiRequest.get("/users"));
+        transport.execute(ApiRequest.get("/posts"));
+
+        Assert.assertEquals(fullResponses.get(), 3);
+        Assert.assertEquals(cache.stats().hits(), 1);
+    }
+
+    @Test
+    public void differentHeadersAreSeparateEntries() {
+        ResponseCache cache = new ResponseCache(1_000_000, 60_000);
+        HttpTransport transport = new CachingTransport(jdk, baseUrl, cache);
+
+        transport.execute(ApiRequest.get("/users").withHeader("Authorization", "Bearer a"));
+        transport.execute(ApiRequest.get("/users").withHeader("Authorization", "Bearer b"));
+
+        Assert.assertEquals(cache.stats().hits(), 0);
+        Assert.assertEquals(cache.stats().entries(), 2);
+    }
+}
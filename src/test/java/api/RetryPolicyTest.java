@@ -0,0 +1,188 @@
+package api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Unit tests for RetryPolicy and RetryingTransport against a scripted
+ * in-memory transport — no server, zero backoff.
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void retriesIdempotentRequestUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport flaky = r -> calls.incrementAndGet() < 3 ? response(503, null) : response(200, null);
+
+        Response res = new RetryingTransport(flaky, policy(3, new RetryPolicy.Budget(0.1, 10))).execute(ApiRequest.get("/users"));
+
+        Assert.assertEquals(res.statusCode(), 200);
+        Assert.assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void retriesPostOnlyWithIdempotencyKey() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport down = r -> { calls.incrementAndGet(); return response(502, null); };
+        RetryingTransport transport = new RetryingTransport(down, policy(2, new RetryPolicy.Budget(0.1, 10)));
+
+        transport.execute(ApiRequest.post("/users", Map.of("name", "x")));
+        Assert.assertEquals(calls.get(), 1);
+
+        calls.set(0);
+        transport.execute(ApiRequest.post("/users", Map.of("name", "x")).withIdempotencyKey("k-1"));
+        Assert.assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport notFound = r -> { calls.incrementAndGet(); return response(404, null); };
+
+        new RetryingTransport(notFound, policy(3, new RetryPolicy.Budget(0.1, 10))).execute(ApiRequest.get("/users/999"));
+
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void retriesIoErrorsButNotOtherExceptions() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport reset = r -> {
+            if (calls.incrementAndGet() == 1) throw new UncheckedIOException(new IOException("Connection reset"));
+            return response(200, null);
+        };
+        Assert.assertEquals(new RetryingTransport(reset, policy(2, new RetryPolicy.Budget(0.1, 10)))
+                .execute(ApiRequest.get("/users")).statusCode(), 200);
+
+        calls.set(0);
+        HttpTransport broken = r -> { calls.incrementAndGet(); throw new IllegalArgumentException("bad request"); };
+        Assert.assertThrows(IllegalArgumentException.class, () ->
+                new RetryingTransport(broken, policy(2, new RetryPolicy.Budget(0.1, 10))).execute(ApiRequest.get("/users")));
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void retriesConnectFailuresThrownUndeclared() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport refused = r -> {
+            if (calls.incrementAndGet() == 1) throw sneaky(new ConnectException("Connection refused"));
+            return response(200, null);
+        };
+        Assert.assertEquals(new RetryingTransport(refused, policy(2, new RetryPolicy.Budget(0.1, 10)))
+                .execute(ApiRequest.get("/users")).statusCode(), 200);
+        Assert.assertEquals(calls.get(), 2);
+
+        calls.set(0);
+        HttpTransport down = r -> { calls.incrementAndGet(); throw sneaky(new ConnectException("Connection refused")); };
+        Exception thrown = Assert.expectThrows(Exception.class, () ->
+                new RetryingTransport(down, policy(2, new RetryPolicy.Budget(0.1, 10))).execute(ApiRequest.get("/users")));
+        Assert.assertTrue(thrown instanceof ConnectException, "the last failure is rethrown as is: " + thrown);
+        Assert.assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void retriesResponsesWithoutHeaders() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport bare = r -> calls.incrementAndGet() == 1
+                ? new ResponseBuilder().setStatusCode(503).setStatusLine("HTTP/1.1 503").setBody("").build()
+                : response(200, null);
+
+        Assert.assertEquals(new RetryingTransport(bare, policy(2, new RetryPolicy.Budget(0.1, 10)))
+                .executeAsync(ApiRequest.get("/users"), Runnable::run).orTimeout(5, TimeUnit.SECONDS).join().statusCode(), 200);
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void asyncCallFailsInsteadOfHangingWhenTheResponseCannotBeRead() {
+        Response unreadable = (Response) Proxy.newProxyInstance(Response.class.getClassLoader(),
+                new Class<?>[] {Response.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException("unreadable");
+                });
+        CompletableFuture<Response> call = new RetryingTransport(r -> unreadable, policy(2, new RetryPolicy.Budget(0.1, 10)))
+                .executeAsync(ApiRequest.get("/users"), Runnable::run);
+
+        CompletionException e = Assert.expectThrows(CompletionException.class,
+                () -> call.orTimeout(5, TimeUnit.SECONDS).join());
+        Assert.assertEquals(e.getCause().getMessage(), "unreadable");
+    }
+
+    @Test
+    public void budgetCapsRetriesAcrossRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport down = r -> { calls.incrementAndGet(); return response(503, null); };
+        RetryPolicy.Budget budget = new RetryPolicy.Budget(0, 0);   // starts with 10 tokens, never refills
+
+        RetryingTransport transport = new RetryingTransport(down, policy(100, budget));
+        transport.execute(ApiRequest.get("/users"));
+        transport.execute(ApiRequest.get("/users"));
+
+        Assert.assertEquals(calls.get(), 12);
+        Assert.assertEquals(budget.retries(), 10);
+        Assert.assertEquals(budget.rejected(), 2);
+    }
+
+    @Test
+    public void retryAfterBeyondMaxDelayIsNotWaitedFor() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport limited = r -> { calls.incrementAndGet(); return response(429, "30"); };
+
+        Response res = new RetryingTransport(limited, policy(3, new RetryPolicy.Budget(0.1, 10))).execute(ApiRequest.get("/users"));
+
+        Assert.assertEquals(res.statusCode(), 429);
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void parsesRetryAfterSecondsAndDates() {
+        Assert.assertEquals(RetryPolicy.retryAfterMillis("2"), 2_000);
+        Assert.assertEquals(RetryPolicy.retryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT"), 0);
+        Assert.assertEquals(RetryPolicy.retryAfterMillis("soon"), -1);
+        Assert.assertEquals(RetryPolicy.retryAfterMillis(null), -1);
+    }
+
+    @Test
+    public void asyncCallsAreRetriedToo() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpTransport flaky = r -> calls.incrementAndGet() == 1 ? response(504, null) : response(200, null);
+
+        Response res = new RetryingTransport(flaky, policy(2, new RetryPolicy.Budget(0.1, 10)))
+                .executeAsync(ApiRequest.delete("/users/1"), Runnable::run).join();
+
+        Assert.assertEquals(res.statusCode(), 200);
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    /** A policy with no backoff, so tests do not sleep. */
+    private static RetryPolicy policy(int retries, RetryPolicy.Budget budget) {
+        return new RetryPolicy(retries, 0, 1_000, budget);
+    }
+
+    private static Response response(int status, String retryAfter) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setHeader("Content-Type", "application/json")
+                .setBody("");
+        if (retryAfter != null) builder.setHeader("Retry-After", retryAfter);
+        return builder.build();
+    }
+
+    /** Throws a checked exception undeclared, the way REST Assured surfaces I/O failures. */
+    @SuppressWarnings("unchecked")
+    static <E extends Throwable> RuntimeException sneaky(Throwable e) throws E {
+        throw (E) e;
+    }
+}
@@ -0,0 +1,72 @@
+package api;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for SchemaRegistry against the schemas in
+ * src/test/resources/schemas and canned response bodies — no server.
+ */
+public class SchemaRegistryTest {
+
+    @Test
+    public void compilesEachSchemaOnce() {
+        SchemaRegistry registry = new SchemaRegistry("schemas");
+
+        JsonSchema first = registry.schema("user");
+        Assert.assertSame(registry.schema("user"), first);
+        Assert.assertEquals(registry.size(), 1);
+        Assert.expectThrows(IllegalArgumentException.class, () -> registry.schema("no-such-schema"));
+    }
+
+    @Test
+    public void validatesSingleResponse() {
+        SchemaRegistry registry = new SchemaRegistry("schemas");
+
+        registry.assertValid("post", JsonBindingTest.response(200,
+                "{\"userId\": 1, \"id\": 1, \"title\": \"t\", \"body\": \"b\"}"));
+
+        // All required properties present, so both child violations are reported; a missing
+        // property would stop validation at the object and hide the others.
+        SchemaRegistry.Result result = registry.validate("post",
+                JsonBindingTest.response(200, "{\"userId\": 0, \"id\": \"1\", \"title\": \"t\", \"body\": \"b\"}"));
+        Assert.assertFalse(result.valid());
+        Assert.assertEquals(result.errors().size(), 2, result.errors().toString());
+        Assert.assertEquals(result.errors().stream().map(e -> e.substring(0, e.indexOf(':'))).sorted().toList(),
+                List.of("/id", "/userId"), result.errors().toString());
+        Assert.expectThrows(AssertionError.class, () -> registry.assertValid("post",
+                JsonBindingTest.response(200, "[]")));
+    }
+
+    @Test
+    public void validatesEachElementOfLargeArrayInParallel() {
+        SchemaRegistry registry = new SchemaRegistry("schemas");
+        int n = SchemaRegistry.PARALLEL_THRESHOLD * 4;
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= n; i++) {
+            String email = i % 100 == 0 ? "not-an-email" : "user" + i + "@example.com";
+            body.add("{\"id\": " + i + ", \"name\": \"User " + i + "\", \"username\": \"u" + i
+                    + "\", \"email\": \"" + email + "\"}");
+        }
+
+        SchemaRegistry.BulkResult result = registry.validateEach("user", JsonBindingTest.response(200, body.toString()));
+
+        Assert.assertEquals(result.validated(), n);
+        Assert.assertEquals(result.failures().stream().map(SchemaRegistry.Failure::index).toList(), List.of(99, 199));
+        Assert.assertTrue(result.failures().get(0).errors().get(0).startsWith("/email"), result.format());
+    }
+
+    @Test
+    public void validatesCannedUserList() {
+        SchemaRegistry.BulkResult result = new SchemaRegistry("schemas")
+                .validateEach("user", JsonBindingTest.response(200, JsonBindingTest.USERS));
+
+        Assert.assertTrue(result.valid(), result.format());
+        Assert.assertEquals(result.validated(), 2);
+    }
+}
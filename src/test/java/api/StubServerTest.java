@@ -0,0 +1,108 @@
+package api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Tests for StubServer through UserApi, the way API tests use it.
+ */
+public class StubServerTest {
+
+    private StubServer stub;
+    private UserApi api;
+
+    @BeforeClass
+    public void start() {
+        stub = StubServer.start();
+        api = new UserApi(stub.baseUrl());
+    }
+
+    @AfterClass
+    public void stop() {
+        api.shutdown();
+        stub.close();
+        TokenCache.shared().clear();
+    }
+
+    @AfterMethod
+    public void resetFaults() { stub.reset(); }
+
+    @Test
+    public void servesUsersAndPosts() {
+        List<User> users = api.getUserList().body();
+        Assert.assertEquals(users.size(), StubServer.USERS);
+        Assert.assertEquals(api.getUser(1).body().username(), "Bret");
+        Assert.assertTrue(SchemaRegistry.shared().validateEach("user", api.getUsers()).valid());
+
+        List<Post> posts = api.getUserPostList(3).body();
+        Assert.assertEquals(posts.size(), StubServer.POSTS_PER_USER);
+        Assert.assertTrue(posts.stream().allMatch(p -> p.userId() == 3));
+        Assert.assertEquals(posts.get(0).id(), 21);
+
+        Assert.assertEquals(api.getUserById(99).statusCode(), 404);
+        Assert.assertEquals(api.getUserPosts(99).asString(), "[]");
+    }
+
+    @Test
+    public void paginatesLikeJsonServer() {
+        TypedResponse<List<User>> page = api.getList("/users?_page=2&_limit=3", User.class);
+        Assert.assertEquals(page.response().header("X-Total-Count"), String.valueOf(StubServer.USERS));
+        Assert.assertEquals(page.body().stream().map(User::id).toList(), List.of(4, 5, 6));
+        Assert.assertEquals(api.getList("/users?_start=8&_limit=5", User.class).body().stream().map(User::id).toList(),
+                List.of(9, 10));
+        Assert.assertEquals(api.get("/users/1/posts?_page=4&_limit=5").asString(), "[]");
+        Assert.assertNull(api.getUsers().header("X-Total-Count"));
+        Assert.assertEquals(api.get("/users?_page=x").statusCode(), 400);
+    }
+
+    @Test
+    public void fakesWritesLikeJsonPlaceholder() {
+        Response created = api.createUser(Map.of("name", "Test User", "email", "test@example.com"));
+        Assert.assertEquals(created.statusCode(), 201);
+        Assert.assertEquals(created.jsonPath().getInt("id"), StubServer.USERS + 1);
+        Assert.assertEquals(created.jsonPath().getString("name"), "Test User");
+
+        Assert.assertEquals(api.updateUser(2, Map.of("name", "Renamed")).jsonPath().getString("name"), "Renamed");
+        Assert.assertEquals(api.deleteUser(2).statusCode(), 200);
+        Assert.assertEquals(api.getUser(2).body().name(), "Ervin Howell", "writes are not stored");
+    }
+
+    @Test
+    public void issuesTokensWithExpiry() {
+        TokenCache.Entry entry = TokenCache.shared().get(stub.baseUrl(), "alice", "secret");
+        Assert.assertNotNull(entry);
+        Assert.assertTrue(entry.expiresAtMillis() > System.currentTimeMillis());
+        Assert.assertNull(TokenCache.shared().get(stub.baseUrl(), "alice", ""));
+    }
+
+    @Test
+    public void injectsFailuresAndLatency() {
+        stub.reset();
+        stub.failNext(2, 500);
+        Assert.assertEquals(api.getUserById(1).statusCode(), 500);
+        Assert.assertEquals(api.getUserById(1).statusCode(), 500);
+        Assert.assertEquals(api.getUserById(1).statusCode(), 200);
+        Assert.assertEquals(stub.requests(), 3, "500 is not retried");
+
+        stub.setErrorRate(1);
+        Response unavailable = api.getUsers();
+        Assert.assertEquals(unavailable.statusCode(), 503);
+        Assert.assertEquals(unavailable.header("Retry-After"), "0");
+        stub.setErrorRate(0);
+
+        stub.setLatency(Duration.ofMillis(150), Duration.ofMillis(150));
+        long begin = System.nanoTime();
+        Assert.assertEquals(api.getUserById(1).statusCode(), 200);
+        Assert.assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+}
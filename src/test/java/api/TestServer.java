@@ -0,0 +1,76 @@
+package api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A bare in-process HTTP server on a free 127.0.0.1 port, for transport tests
+ * that need one hand-written handler rather than StubServer's fake User API
+ * (a hanging endpoint, ETags, a pre-gzipped body).
+ *
+ * Example:
+ *   TestServer server = TestServer.start("/users", exchange -> TestServer.sendJson(exchange, body));
+ *   new JdkHttpTransport(server.baseUrl()).execute(ApiRequest.get("/users"));
+ *   server.close();
+ */
+final class TestServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private TestServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server whose handler runs on a virtual thread per exchange.
+     *
+     * @param path    the context path, e.g. "/" for every request
+     * @param handler handles requests under path
+     * @return the running server
+     */
+    static TestServer start(String path, HttpHandler handler) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(path, handler);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            server.setExecutor(executor);
+            server.start();
+            return new TestServer(server, executor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start test server", e);
+        }
+    }
+
+    /**
+     * Answers 200 with a JSON body. Headers added to the exchange beforehand
+     * (e.g. Content-Encoding) are sent along.
+     *
+     * @param exchange the exchange to answer
+     * @param body     the body bytes, sent as they are
+     */
+    static void sendJson(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) { out.write(body); }
+    }
+
+    /** @return the server's root, e.g. "http://127.0.0.1:54321" */
+    String baseUrl() { return "http://127.0.0.1:" + server.getAddress().getPort(); }
+
+    /** Stops the server at once, dropping open exchanges. */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
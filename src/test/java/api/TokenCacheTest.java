@@ -0,0 +1,127 @@
+package api;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import config.TestConfig;
+
+/**
+ * Unit tests for TokenCache: JWT expiry decoding (tokens built in the test) and
+ * single-flight logins against a slow in-process /auth/login stub.
+ */
+public class TokenCacheTest {
+
+    private TestServer server;
+    private String baseUrl;
+    private final AtomicInteger logins = new AtomicInteger();
+
+    @BeforeClass
+    public void startStub() {
+        server = TestServer.start("/auth/login", exchange -> {
+            logins.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TestServer.sendJson(exchange, "{\"token\":\"opaque-token\"}".getBytes(StandardCharsets.UTF_8));
+        });
+        baseUrl = server.baseUrl();
+    }
+
+    @AfterClass
+    public void stopStub() {
+        server.close();
+        TokenCache.shared().clear();
+    }
+
+    @Test
+    public void concurrentGetsShareOneLogin() throws Exception {
+        logins.set(0);
+        try (ExecutorService threads = Executors.newFixedThreadPool(20)) {
+            List<CompletableFuture<TokenCache.Entry>> entries = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                entries.add(CompletableFuture.supplyAsync(
+                        () -> TokenCache.shared().get(baseUrl, "sync-user", "secret"), threads));
+            }
+            TokenCache.Entry first = entries.get(0).get();
+            for (CompletableFuture<TokenCache.Entry> e : entries) Assert.assertSame(e.get(), first);
+        }
+        Assert.assertEquals(logins.get(), 1);
+    }
+
+    @Test
+    public void concurrentGetAsyncCallsShareOneFuture() {
+        logins.set(0);
+        CompletableFuture<TokenCache.Entry> a = TokenCache.shared().getAsync(baseUrl, "async-user", "secret");
+        CompletableFuture<TokenCache.Entry> b = TokenCache.shared().getAsync(baseUrl, "async-user", "secret");
+        Assert.assertSame(b, a);
+        Assert.assertEquals(a.join().token(), "opaque-token");
+        Assert.assertEquals(logins.get(), 1);
+    }
+
+    @Test
+    public void readsExpClaimInMillis() {
+        Assert.assertEquals(TokenCache.expiryMillis(jwt("{\"sub\":\"admin\",\"exp\":1700000000}")), 1_700_000_000_000L);
+    }
+
+    @Test
+    public void returnsZeroWithoutExpClaim() {
+        Assert.assertEquals(TokenCache.expiryMillis(jwt("{\"sub\":\"admin\"}")), 0);
+    }
+
+    @Test
+    public void returnsZeroForOpaqueOrMalformedTokens() {
+        Assert.assertEquals(TokenCache.expiryMillis("opaque-session-token"), 0);
+        Assert.assertEquals(TokenCache.expiryMillis("header.%%%notbase64%%%.sig"), 0);
+        Assert.assertEquals(TokenCache.expiryMillis(jwt("[1,2,3]")), 0);
+    }
+
+    @Test
+    public void refreshesBeforeExpiryWithoutLooping() {
+        long now = 1_700_000_000_000L;
+        long skew = TimeUnit.SECONDS.toMillis(TestConfig.API_TOKEN_REFRESH_SKEW_SEC);
+        Assert.assertEquals(TokenCache.refreshDelayMillis(now + skew + 600_000, now), 600_000);
+        Assert.assertEquals(TokenCache.refreshDelayMillis(now + skew, now), Math.max(5_000, skew / 2),
+                "tokens living no longer than the skew refresh at half their lifetime");
+        Assert.assertEquals(TokenCache.refreshDelayMillis(now + 1_000, now), 5_000);
+        Assert.assertEquals(TokenCache.refreshDelayMillis(now - 60_000, now), 5_000, "expired tokens never loop");
+    }
+
+    @Test
+    public void failedRefreshIsRetried() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        TokenCache.Entry entry = new TokenCache.Entry(() -> {
+            if (attempts.incrementAndGet() == 1) throw RetryPolicyTest.sneaky(new ConnectException("Connection refused"));
+            return "fresh-token";
+        }, "stale-token");
+
+        new TokenCache(10).refresh(entry);
+        Assert.assertEquals(entry.token(), "stale-token", "a failed refresh keeps serving the current token");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!entry.token().equals("fresh-token") && System.nanoTime() < deadline) Thread.sleep(10);
+        Assert.assertEquals(entry.token(), "fresh-token");
+        Assert.assertEquals(attempts.get(), 2);
+    }
+
+    /** Builds an unsigned JWT-shaped token with the given claims JSON. */
+    private static String jwt(String claims) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        return enc.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + enc.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+}
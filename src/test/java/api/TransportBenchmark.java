@@ -0,0 +1,96 @@
+package api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.response.Response;
+
+/**
+ * Compares RestAssuredTransport and JdkHttpTransport against a local stub
+ * server, so network latency to a public API does not drown the difference.
+ *
+ * For each transport it reports:
+ * - sync: mean latency of back-to-back GETs on one thread
+ * - async: wall time and throughput of a burst of concurrent GETs
+ *
+ * The stub serves a fixed JSON array on /users from an in-process JDK HttpServer.
+ *
+ * Run with: ./gradlew benchmarks
+ */
+public class TransportBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int SYNC_CALLS = 2_000;
+    private static final int ASYNC_CALLS = 2_000;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeClass
+    public void startStub() throws IOException {
+        StringBuilder users = new StringBuilder("[");
+        for (int i = 1; i <= 10; i++) {
+            if (i > 1) users.append(',');
+            users.append("{\"id\":").append(i).append(",\"name\":\"User ").append(i)
+                 .append("\",\"email\":\"user").append(i).append("@example.com\"}");
+        }
+        byte[] body = users.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) { out.write(body); }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopStub() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @Test
+    public void restAssuredTransport() { run("RestAssuredTransport", new RestAssuredTransport(baseUrl)); }
+
+    @Test
+    public void jdkHttpTransport() { run("JdkHttpTransport", new JdkHttpTransport(baseUrl)); }
+
+    private void run(String name, HttpTransport transport) {
+        try (transport) {
+            ApiRequest request = ApiRequest.get("/users");
+            for (int i = 0; i < WARMUP; i++) transport.execute(request);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < SYNC_CALLS; i++) Assert.assertEquals(transport.execute(request).statusCode(), 200);
+            double syncMicros = (System.nanoTime() - start) / 1_000.0 / SYNC_CALLS;
+
+            start = System.nanoTime();
+            List<CompletableFuture<Response>> futures = new ArrayList<>(ASYNC_CALLS);
+            for (int i = 0; i < ASYNC_CALLS; i++) futures.add(transport.executeAsync(request, executor));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            double asyncMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            System.out.printf("%-22s sync: %8.1f us/call | async: %d calls in %8.1f ms (%,.0f req/s)%n",
+                    name, syncMicros, ASYNC_CALLS, asyncMillis, ASYNC_CALLS / (asyncMillis / 1_000));
+        }
+    }
+}
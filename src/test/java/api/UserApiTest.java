@@ -12,7 +12,7 @@ public class UserApiTest {
 
     @BeforeClass
     public void setup() {
-        RestAssured.baseURI = "https://jsonplaceholder.typicode.com";
+        RestAssured.baseURI = ApiClient.defaultBaseUrl();
     }
 
     @Test
@@ -0,0 +1,123 @@
+package api;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import io.restassured.response.Response;
+
+/**
+ * Tests for UserApi.getUsersWithPosts() against a StubServer holding 40
+ * users, each with StubServer.POSTS_PER_USER posts.
+ */
+public class UsersWithPostsTest {
+
+    private static final int USERS = 40;
+
+    private StubServer stub;
+    private UserApi api;
+
+    @BeforeClass
+    public void start() {
+        stub = StubServer.start(0, USERS);
+        api = new UserApi(stub.baseUrl());
+    }
+
+    @AfterClass
+    public void stop() {
+        api.shutdown();
+        stub.close();
+    }
+
+    @Test
+    public void joinsEveryUserWithTheirPosts() {
+        stub.reset();
+        UsersWithPosts all = api.getUsersWithPosts(8);
+
+        Assert.assertEquals(all.users().size(), USERS);
+        Assert.assertEquals(all.requests(), USERS + 1);
+        Assert.assertEquals(stub.requests(), USERS + 1);
+        Assert.assertEquals(all.postCount(), USERS * StubServer.POSTS_PER_USER);
+        for (int i = 0; i < USERS; i++) {
+            UsersWithPosts.Entry entry = all.users().get(i);
+            Assert.assertEquals(entry.user().id(), i + 1, "entries keep the user list's order");
+            Assert.assertTrue(entry.posts().stream().allMatch(p -> p.userId() == entry.user().id()));
+        }
+        Assert.assertEquals(all.postsOf(3).get(0).id(), 21);
+        Assert.assertTrue(all.postsOf(USERS + 1).isEmpty());
+    }
+
+    @Test
+    public void fanOutSavesWallTime() {
+        stub.reset();
+        stub.setLatency(Duration.ofMillis(20), Duration.ofMillis(20));
+        try {
+            UsersWithPosts sequential = api.getUsersWithPosts(1);
+            UsersWithPosts parallel = api.getUsersWithPosts(8);
+
+            Assert.assertTrue(parallel.elapsed().compareTo(sequential.elapsed().dividedBy(2)) < 0,
+                    parallel.format() + " vs " + sequential.format());
+            Assert.assertTrue(parallel.saved().compareTo(Duration.ofMillis(20L * USERS / 2)) > 0, parallel.format());
+            Assert.assertTrue(parallel.speedup() > 2, parallel.format());
+            Assert.assertTrue(sequential.speedup() < 1.5, sequential.format());
+        } finally {
+            stub.reset();
+        }
+    }
+
+    @Test
+    public void boundsPostsCallsInFlight() {
+        stub.reset();
+        stub.setLatency(Duration.ofMillis(5), Duration.ofMillis(5));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try {
+            UsersWithPosts all = UsersWithPosts.load(path -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return api.getAsync(path).whenComplete((res, e) -> inFlight.decrementAndGet());
+            }, 3);
+            Assert.assertEquals(all.users().size(), USERS);
+            Assert.assertEquals(peak.get(), 3);
+        } finally {
+            stub.reset();
+        }
+    }
+
+    @Test
+    public void firstFailureStopsTheFanOut() {
+        stub.reset();
+        IllegalStateException failure = Assert.expectThrows(IllegalStateException.class,
+                () -> UsersWithPosts.load(path -> path.equals("/users/5/posts")
+                        ? CompletableFuture.failedFuture(new IllegalStateException("boom"))
+                        : api.getAsync(path), 1));
+        Assert.assertEquals(failure.getMessage(), "boom");
+        Assert.assertEquals(stub.requests(), 5, "no posts calls after the failed one");
+
+        stub.failNext(1, 500);
+        Assert.expectThrows(IllegalStateException.class, () -> api.getUsersWithPosts(4));
+        Assert.expectThrows(IllegalArgumentException.class, () -> api.getUsersWithPosts(0));
+    }
+
+    @Test
+    public void failureCancelsSlowCallsInFlight() {
+        stub.reset();
+        CompletableFuture<Response> slow = new CompletableFuture<Response>().orTimeout(10, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        IllegalStateException failure = Assert.expectThrows(IllegalStateException.class,
+                () -> UsersWithPosts.load(path -> switch (path) {
+                    case "/users/1/posts" -> slow;
+                    case "/users/2/posts" -> CompletableFuture.failedFuture(new IllegalStateException("boom"));
+                    default -> api.getAsync(path);
+                }, 4));
+
+        Assert.assertEquals(failure.getMessage(), "boom");
+        Assert.assertTrue(slow.isCancelled(), "the slow call is cancelled, not waited for");
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "fails without waiting out the slow call");
+    }
+}